@@ -0,0 +1,170 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+
+import com.graywolf336.jail.beans.Jail;
+import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.enums.Lang;
+import com.graywolf336.jail.enums.Settings;
+import com.graywolf336.jail.listeners.AFKListener;
+
+/**
+ * Kicks the prisoners who have been afk for longer than the max afk time in the config.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Whenever a prisoner moves, chats or interacts the {@link AFKListener} marks them as
+ * active, which only sets a timestamp on them. Every online prisoner has a deadline in a
+ * queue of when they'll have been afk for too long. Once a second the deadlines which have
+ * passed are looked at, those who were active since then are queued again by their new
+ * deadline and the rest are kicked, all together on the main thread.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Like before, the prisoners whose time isn't counting down, as they're jailed forever or
+ * have something pending, aren't kicked.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.1
+ */
+public class AFKManager {
+    private JailMain pl;
+    private PriorityQueue<Deadline> deadlines;
+    private HashSet<UUID> queued;
+    private long maxAFK;
+    private int task;
+
+    protected AFKManager(JailMain plugin) {
+        this.pl = plugin;
+        this.deadlines = new PriorityQueue<Deadline>();
+        this.queued = new HashSet<UUID>();
+        this.task = -1;
+        this.loadSettings();
+    }
+
+    /** Loads the max afk time and starts, or stops, keeping track of the prisoners who are online. */
+    public void loadSettings() {
+        long max = 0L;
+        try {
+            max = Util.getTime(pl.getConfig().getString(Settings.MAXAFKTIME.getPath()));
+        } catch (Exception e) {
+            pl.getLogger().severe("Error while processing the max afk time: " + e.getMessage());
+        }
+
+        this.maxAFK = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, max));
+        this.deadlines.clear();
+        this.queued.clear();
+
+        if(this.task != -1) {
+            pl.getServer().getScheduler().cancelTask(this.task);
+            this.task = -1;
+        }
+
+        if(!this.isEnabled()) {
+            //Their afk time stays at 0 while it isn't kept track of
+            for(Jail j : pl.getJailManager().getJails())
+                for(Prisoner p : j.getAllPrisoners().values())
+                    p.stopAFKTracking();
+
+            return;
+        }
+
+        this.task = pl.getServer().getScheduler().scheduleSyncRepeatingTask(pl, new Runnable() {
+            public void run() {
+                kickAFKPrisoners();
+            }
+        }, 20L, 20L);
+
+        for(Jail j : pl.getJailManager().getJails())
+            for(Prisoner p : j.getAllPrisoners().values())
+                if(pl.getServer().getPlayer(p.getUUID()) != null) {
+                    p.markActive();
+                    this.track(p);
+                }
+    }
+
+    /** Checks whether prisoners are kicked for being afk. */
+    public boolean isEnabled() {
+        return this.maxAFK > 0L;
+    }
+
+    /**
+     * Starts keeping track of how long the prisoner is afk, should be called once they're online, jailed and marked active.
+     *
+     * @param prisoner who is online
+     */
+    public void track(Prisoner prisoner) {
+        if(!this.isEnabled() || !this.queued.add(prisoner.getUUID())) return;
+
+        this.deadlines.add(new Deadline(prisoner.getLastActivity() + this.maxAFK, prisoner.getUUID()));
+    }
+
+    /** Gets the amount of prisoners we're keeping track of. */
+    public int getTrackedCount() {
+        return this.queued.size();
+    }
+
+    private void kickAFKPrisoners() {
+        long now = System.nanoTime();
+        List<Player> kick = new ArrayList<Player>();
+
+        Deadline d;
+        while((d = this.deadlines.peek()) != null && now - d.at >= 0L) {
+            this.deadlines.poll();
+
+            //Forget about them once they're offline or no longer jailed
+            Player player = pl.getServer().getPlayer(d.uuid);
+            Prisoner p = player == null ? null : pl.getJailManager().getPrisoner(d.uuid);
+            if(p == null) {
+                this.queued.remove(d.uuid);
+                continue;
+            }
+
+            //When their time isn't counting down they aren't kicked, check again later
+            if(p.getRemainingTime() <= 0 || p.isOfflinePending()) {
+                this.deadlines.add(new Deadline(now + this.maxAFK, d.uuid));
+                continue;
+            }
+
+            //They were active since this was queued, so queue them by their new deadline
+            long deadline = p.getLastActivity() + this.maxAFK;
+            if(deadline - now > 0L) {
+                this.deadlines.add(new Deadline(deadline, d.uuid));
+                continue;
+            }
+
+            p.markActive();
+            this.queued.remove(d.uuid);
+            kick.add(player);
+        }
+
+        for(Player player : kick)
+            player.kickPlayer(Lang.AFKKICKMESSAGE.get());
+
+        if(!kick.isEmpty()) pl.debug("Kicked " + kick.size() + " prisoners for being afk.");
+    }
+
+    private static class Deadline implements Comparable<Deadline> {
+        private long at;
+        private UUID uuid;
+
+        private Deadline(long at, UUID uuid) {
+            this.at = at;
+            this.uuid = uuid;
+        }
+
+        public int compareTo(Deadline other) {
+            //These are from System.nanoTime, so only the difference between them counts
+            long diff = this.at - other.at;
+            return diff < 0L ? -1 : (diff == 0L ? 0 : 1);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayDeque;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import com.graywolf336.jail.beans.Jail;
+import com.graywolf336.jail.enums.Lang;
+import com.graywolf336.jail.enums.Settings;
+
+/**
+ * Runs jailing, releasing and transferring of lots of prisoners spread out over the ticks.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Every prisoner means a teleport, their inventory, console commands, events and saving
+ * their jail, so doing hundreds of them at once freezes the server for seconds. Instead
+ * they're queued up as a batch and every tick we work through as many as fit inside of
+ * the configured budget, telling whoever started the batch how far along it is.
+ *
+ * <p>&nbsp;</p>
+ *
+ * While anything is queued the saving of jails is held back, so a jail which has a
+ * hundred prisoners released from it is saved once when the queue is done instead of
+ * a hundred times. Saving a jail outside of a batch, like when someone is jailed, is
+ * held back until the end of the tick, so a bunch of jailings in the same tick cause
+ * only one save.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.1
+ */
+public class BatchProcessor {
+    /** How often, in nanoseconds, the sender of a batch is told how far along it is. */
+    private static final long PROGRESS_INTERVAL = 1000000000L;
+
+    private JailMain pl;
+    private ArrayDeque<Batch> batches;
+    private boolean scheduled;
+    private long budget;
+
+    protected BatchProcessor(JailMain plugin) {
+        this.pl = plugin;
+        this.batches = new ArrayDeque<Batch>();
+        this.scheduled = false;
+        this.loadBudget();
+    }
+
+    /** Loads the amount of time, in microseconds, we can spend working on batches each tick. */
+    public void loadBudget() {
+        this.budget = Math.max(0L, pl.getConfig().getLong(Settings.BATCHBUDGET.getPath(), 5000L)) * 1000L;
+    }
+
+    /**
+     * Queues up a batch of operations, they are started on the next tick.
+     *
+     * @param sender who started the batch and is told how far along it is, can be null
+     * @param operations to run, in order
+     * @param complete the message sent to the sender once they've all run, can be null
+     */
+    public void submit(CommandSender sender, Iterable<? extends Runnable> operations, String complete) {
+        Batch b = new Batch(sender, complete);
+        for(Runnable r : operations)
+            b.operations.add(r);
+        b.total = b.operations.size();
+
+        if(b.operations.isEmpty()) {
+            if(sender != null && complete != null) sender.sendMessage(complete);
+            return;
+        }
+
+        pl.debug("Queued a batch of " + b.total + " operations" + (sender == null ? "." : " for " + sender.getName() + "."));
+        this.batches.add(b);
+        pl.getJailIO().deferSaves();
+        this.scheduleNextTick();
+    }
+
+    /**
+     * Saves the jail once the current tick, or the batches being worked on, are done.
+     *
+     * @param jail to save
+     */
+    public void save(Jail jail) {
+        pl.getJailIO().deferSaves();
+        pl.getJailIO().saveJail(jail);
+        this.scheduleNextTick();
+    }
+
+    /** Gets the amount of time, in nanoseconds, which can be spent each tick. */
+    public long getBudget() {
+        return this.budget;
+    }
+
+    /** Checks whether there are batches being worked through. */
+    public boolean isWorking() {
+        return !this.batches.isEmpty();
+    }
+
+    /** Gets the amount of operations which are waiting to be run. */
+    public int getPendingCount() {
+        int count = 0;
+        for(Batch b : this.batches)
+            count += b.operations.size();
+
+        return count;
+    }
+
+    /**
+     * Runs everything which is left right away and saves the jails, should be called when the plugin is disabled.
+     *
+     * <p>
+     *
+     * The plugin is already disabled by then, so the operations can't teleport or schedule
+     * anything. Releases are left for when the prisoners join again and transfers are skipped.
+     */
+    public void finish() {
+        while(!this.batches.isEmpty())
+            this.runNext();
+
+        pl.getJailIO().flushSaves();
+    }
+
+    private void scheduleNextTick() {
+        //Nothing can be scheduled while disabling, the saves are flushed by finish
+        if(this.scheduled || !pl.isEnabled()) return;
+
+        this.scheduled = true;
+        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+            public void run() {
+                work();
+            }
+        }, 1L);
+    }
+
+    private void work() {
+        long start = System.nanoTime();
+        long deadline = start + this.budget;
+
+        //Always run at least one, otherwise a budget
+        //that is too low would mean nothing ever happens
+        while(!this.batches.isEmpty()) {
+            this.runNext();
+            if(System.nanoTime() >= deadline) break;
+        }
+
+        //Only now, so any saves asked for while working are flushed below
+        this.scheduled = false;
+
+        if(this.batches.isEmpty()) {
+            pl.getJailIO().flushSaves();
+        }else {
+            for(Batch b : this.batches)
+                b.reportProgress(start);
+
+            this.scheduleNextTick();
+        }
+    }
+
+    private void runNext() {
+        Batch b = this.batches.peek();
+        Runnable r = b.operations.poll();
+
+        if(r != null) {
+            try {
+                r.run();
+            }catch(Exception e) {
+                if(pl.inDebug()) e.printStackTrace();
+                pl.getLogger().severe("An operation of a batch failed: " + e.getMessage());
+            }
+        }
+
+        if(b.operations.isEmpty()) {
+            this.batches.poll();
+            pl.debug("Finished a batch of " + b.total + " operations" + (b.sender == null ? "." : " for " + b.sender.getName() + "."));
+            if(b.canMessage() && b.complete != null) b.sender.sendMessage(b.complete);
+        }
+    }
+
+    private static class Batch {
+        private CommandSender sender;
+        private String complete;
+        private ArrayDeque<Runnable> operations;
+        private int total;
+        private long lastReport;
+
+        private Batch(CommandSender sender, String complete) {
+            this.sender = sender;
+            this.complete = complete;
+            this.operations = new ArrayDeque<Runnable>();
+            this.lastReport = System.nanoTime();
+        }
+
+        private boolean canMessage() {
+            return this.sender != null && (!(this.sender instanceof Player) || ((Player) this.sender).isOnline());
+        }
+
+        private void reportProgress(long now) {
+            if(now - this.lastReport < PROGRESS_INTERVAL || !this.canMessage()) return;
+
+            this.lastReport = now;
+            this.sender.sendMessage(Lang.BATCHPROGRESS.get(new String[] { String.valueOf(this.total - this.operations.size()), String.valueOf(this.total) }));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Chunk;
+
+import com.graywolf336.jail.beans.SimpleLocation;
+import com.graywolf336.jail.enums.Settings;
+import com.graywolf336.jail.interfaces.ICell;
+
+/**
+ * Updates the signs of cells, spread out over the ticks.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * Cells are marked as dirty instead of being updated right away, so a cell
+ * which gets marked several times before we get to it is only updated once.
+ * Every tick we update as many dirty cells as fit inside of the configured
+ * budget and leave the rest for the next tick, that way a lot of prisoners'
+ * time changing at once doesn't cause a lag spike.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * Signs in chunks which aren't loaded are skipped, as getting their block would
+ * load the chunk. They are kept by the world and key of the chunk, and once that
+ * chunk loads only the signs which are in it are updated, not every sign of their cells.
+ * 
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.2
+ */
+public class CellSignUpdater {
+    private JailMain pl;
+    private LinkedHashSet<ICell> dirty;
+    private LinkedHashMap<ICell, LinkedHashSet<SimpleLocation>> dirtySigns;
+    private HashMap<String, HashMap<Long, LinkedHashMap<SimpleLocation, ICell>>> deferred;
+    private boolean scheduled;
+    private long budget;
+
+    protected CellSignUpdater(JailMain plugin) {
+        this.pl = plugin;
+        this.dirty = new LinkedHashSet<ICell>();
+        this.dirtySigns = new LinkedHashMap<ICell, LinkedHashSet<SimpleLocation>>();
+        this.deferred = new HashMap<String, HashMap<Long, LinkedHashMap<SimpleLocation, ICell>>>();
+        this.scheduled = false;
+        this.loadBudget();
+    }
+
+    /** Loads the amount of time, in microseconds, we can spend updating signs each tick. */
+    public void loadBudget() {
+        this.budget = Math.max(0L, pl.getConfig().getLong(Settings.CELLSIGNUPDATEBUDGET.getPath())) * 1000L;
+    }
+
+    /**
+     * Marks the given cell as needing its signs updated, this is safe to call from any thread.
+     * 
+     * @param cell which needs its signs updated
+     */
+    public void markDirty(ICell cell) {
+        if(cell == null || !cell.hasSigns()) return;
+
+        boolean schedule = false;
+        synchronized(this.dirty) {
+            this.dirty.add(cell);
+
+            if(!this.scheduled) {
+                this.scheduled = true;
+                schedule = true;
+            }
+        }
+
+        if(schedule) this.scheduleNextTick();
+    }
+
+    /**
+     * Gets the amount of cells waiting to have all, or some, of their signs updated.
+     * 
+     * @return the amount of dirty cells
+     */
+    public int getDirtyCount() {
+        synchronized(this.dirty) {
+            int count = this.dirty.size();
+            for(ICell c : this.dirtySigns.keySet())
+                if(!this.dirty.contains(c)) count++;
+
+            return count;
+        }
+    }
+
+    /**
+     * Marks the signs which are waiting on the given chunk as dirty, should be called when a chunk loads.
+     * 
+     * @param chunk which was loaded
+     */
+    public void chunkLoaded(Chunk chunk) {
+        if(this.deferred.isEmpty()) return;
+
+        HashMap<Long, LinkedHashMap<SimpleLocation, ICell>> chunks = this.deferred.get(chunk.getWorld().getName());
+        if(chunks == null) return;
+
+        LinkedHashMap<SimpleLocation, ICell> signs = chunks.remove(Util.getChunkKey(chunk.getX(), chunk.getZ()));
+        if(chunks.isEmpty()) this.deferred.remove(chunk.getWorld().getName());
+        if(signs == null) return;
+
+        boolean schedule = false;
+        synchronized(this.dirty) {
+            for(Map.Entry<SimpleLocation, ICell> e : signs.entrySet()) {
+                LinkedHashSet<SimpleLocation> cellSigns = this.dirtySigns.get(e.getValue());
+                if(cellSigns == null) {
+                    cellSigns = new LinkedHashSet<SimpleLocation>();
+                    this.dirtySigns.put(e.getValue(), cellSigns);
+                }
+
+                cellSigns.add(e.getKey());
+            }
+
+            if(!this.scheduled) {
+                this.scheduled = true;
+                schedule = true;
+            }
+        }
+
+        if(schedule) this.scheduleNextTick();
+    }
+
+    /**
+     * Forgets about the given cell, so nothing is held on to once it is deleted.
+     * 
+     * @param cell which was deleted
+     */
+    public void forget(ICell cell) {
+        synchronized(this.dirty) {
+            this.dirty.remove(cell);
+            this.dirtySigns.remove(cell);
+        }
+
+        Iterator<HashMap<Long, LinkedHashMap<SimpleLocation, ICell>>> worlds = this.deferred.values().iterator();
+        while(worlds.hasNext()) {
+            HashMap<Long, LinkedHashMap<SimpleLocation, ICell>> chunks = worlds.next();
+
+            Iterator<LinkedHashMap<SimpleLocation, ICell>> it = chunks.values().iterator();
+            while(it.hasNext()) {
+                LinkedHashMap<SimpleLocation, ICell> signs = it.next();
+                if(signs.values().removeAll(Collections.singleton(cell)) && signs.isEmpty()) it.remove();
+            }
+
+            if(chunks.isEmpty()) worlds.remove();
+        }
+    }
+
+    /**
+     * Gets the amount of chunks which have signs waiting on them to load.
+     * 
+     * @return the amount of chunks
+     */
+    public int getDeferredChunkCount() {
+        int count = 0;
+        for(HashMap<Long, LinkedHashMap<SimpleLocation, ICell>> chunks : this.deferred.values())
+            count += chunks.size();
+
+        return count;
+    }
+
+    private void defer(ICell cell, Collection<SimpleLocation> tried) {
+        for(SimpleLocation s : tried) {
+            if(s.isChunkLoaded() || !cell.getSigns().contains(s)) continue;
+
+            HashMap<Long, LinkedHashMap<SimpleLocation, ICell>> chunks = this.deferred.get(s.getWorldName());
+            if(chunks == null) {
+                chunks = new HashMap<Long, LinkedHashMap<SimpleLocation, ICell>>();
+                this.deferred.put(s.getWorldName(), chunks);
+            }
+
+            LinkedHashMap<SimpleLocation, ICell> signs = chunks.get(s.getChunkKey());
+            if(signs == null) {
+                signs = new LinkedHashMap<SimpleLocation, ICell>();
+                chunks.put(s.getChunkKey(), signs);
+            }
+
+            signs.put(s, cell);
+        }
+    }
+
+    private void scheduleNextTick() {
+        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+            public void run() {
+                updateDirtyCells();
+            }
+        }, 1L);
+    }
+
+    private void updateDirtyCells() {
+        long deadline = System.nanoTime() + this.budget;
+
+        //Always update at least one cell, otherwise a budget
+        //that is too low would mean the signs never update
+        do {
+            ICell cell;
+            Collection<SimpleLocation> signs;
+            synchronized(this.dirty) {
+                Iterator<ICell> it = this.dirty.iterator();
+                if(it.hasNext()) {
+                    cell = it.next();
+                    it.remove();
+                    //All of its signs are being updated, which covers the ones from loaded chunks
+                    this.dirtySigns.remove(cell);
+                    signs = null;
+                }else {
+                    Iterator<Map.Entry<ICell, LinkedHashSet<SimpleLocation>>> sit = this.dirtySigns.entrySet().iterator();
+                    if(!sit.hasNext()) break;
+
+                    Map.Entry<ICell, LinkedHashSet<SimpleLocation>> e = sit.next();
+                    sit.remove();
+                    cell = e.getKey();
+                    signs = e.getValue();
+                }
+            }
+
+            if(cell.hasSigns()) {
+                if(signs == null) signs = new ArrayList<SimpleLocation>(cell.getSigns());
+
+                List<String> skipped = cell.updateSigns(signs).get("deferred");
+                if(skipped != null && !skipped.isEmpty()) this.defer(cell, signs);
+            }
+        } while(System.nanoTime() < deadline);
+
+        synchronized(this.dirty) {
+            if(this.dirty.isEmpty() && this.dirtySigns.isEmpty()) {
+                this.scheduled = false;
+                return;
+            }
+        }
+
+        this.scheduleNextTick();
+    }
+}
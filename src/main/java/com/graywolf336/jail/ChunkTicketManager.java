@@ -0,0 +1,199 @@
+package com.graywolf336.jail;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map.Entry;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import com.graywolf336.jail.beans.Cell;
+import com.graywolf336.jail.beans.Jail;
+import com.graywolf336.jail.beans.SimpleLocation;
+import com.graywolf336.jail.enums.Settings;
+
+/**
+ * Keeps the chunks of the jails loaded with plugin chunk tickets, when it is turned on in the config.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Jailing, respawning, the move protection and the cell signs all go to the same few
+ * places, so when nobody is around them those chunks unload only to be loaded again,
+ * on the main thread, the next time someone is jailed. The chunks of each jail's
+ * teleport in and of its cells' teleports, chests and signs get a ticket first. After
+ * that, if all of the chunks inside of a jail's bounds fit in what is left of the
+ * budget, those get one as well.
+ *
+ * <p>&nbsp;</p>
+ *
+ * The tickets are worked out again, on the next tick, whenever a jail or cell is added
+ * or removed and when a world loads or unloads.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class ChunkTicketManager {
+    private JailMain pl;
+    private HashMap<String, HashSet<Long>> tickets;
+    private boolean enabled, scheduled;
+    private int budget;
+
+    protected ChunkTicketManager(JailMain plugin) {
+        this.pl = plugin;
+        this.tickets = new HashMap<String, HashSet<Long>>();
+        this.scheduled = false;
+        this.loadSettings();
+    }
+
+    /** Loads whether we keep the chunks loaded and how many of them, then refreshes the tickets. */
+    public void loadSettings() {
+        this.enabled = pl.getConfig().getBoolean(Settings.CHUNKTICKETSENABLED.getPath(), false);
+        this.budget = Math.max(0, pl.getConfig().getInt(Settings.CHUNKTICKETSMAXCHUNKS.getPath(), 64));
+        this.refresh();
+    }
+
+    /** Refreshes the tickets on the next tick, so a bunch of changes at once only refresh them once. */
+    public void refresh() {
+        if(this.scheduled) return;
+        if(!this.enabled && this.tickets.isEmpty()) return;
+
+        this.scheduled = true;
+        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+            public void run() {
+                scheduled = false;
+                update();
+            }
+        });
+    }
+
+    /** Gets the amount of chunks we currently have a ticket on. */
+    public int getTicketCount() {
+        int count = 0;
+        for(HashSet<Long> chunks : this.tickets.values())
+            count += chunks.size();
+
+        return count;
+    }
+
+    /** Removes all of our tickets, should be called when the plugin is disabled. */
+    public void removeAll() {
+        for(World w : pl.getServer().getWorlds())
+            w.removePluginChunkTickets(pl);
+
+        this.tickets.clear();
+    }
+
+    private void update() {
+        HashMap<String, LinkedHashSet<Long>> wanted = this.enabled ? this.getWantedChunks() : new HashMap<String, LinkedHashSet<Long>>();
+
+        //Take the tickets off of the chunks we no longer want, forgetting the worlds which unloaded
+        Iterator<Entry<String, HashSet<Long>>> it = this.tickets.entrySet().iterator();
+        while(it.hasNext()) {
+            Entry<String, HashSet<Long>> e = it.next();
+            World w = pl.getServer().getWorld(e.getKey());
+            if(w == null) {
+                it.remove();
+                continue;
+            }
+
+            LinkedHashSet<Long> keep = wanted.get(e.getKey());
+            Iterator<Long> chunks = e.getValue().iterator();
+            while(chunks.hasNext()) {
+                long key = chunks.next();
+                if(keep == null || !keep.contains(key)) {
+                    w.removePluginChunkTicket((int) key, (int) (key >>> 32), pl);
+                    chunks.remove();
+                }
+            }
+
+            if(e.getValue().isEmpty()) it.remove();
+        }
+
+        //Then put the tickets on the chunks which don't have one yet
+        for(Entry<String, LinkedHashSet<Long>> e : wanted.entrySet()) {
+            World w = pl.getServer().getWorld(e.getKey());
+            if(w == null) continue;
+
+            HashSet<Long> have = this.tickets.get(e.getKey());
+            if(have == null) {
+                have = new HashSet<Long>();
+                this.tickets.put(e.getKey(), have);
+            }
+
+            for(long key : e.getValue())
+                if(have.add(key))
+                    w.addPluginChunkTicket((int) key, (int) (key >>> 32), pl);
+        }
+
+        pl.debug("Keeping " + this.getTicketCount() + " chunks of the jails loaded.");
+    }
+
+    private HashMap<String, LinkedHashSet<Long>> getWantedChunks() {
+        HashMap<String, LinkedHashSet<Long>> wanted = new HashMap<String, LinkedHashSet<Long>>();
+        int left = this.budget;
+
+        //First the chunks everyone gets teleported to or which have signs and chests in them
+        for(Jail j : pl.getJailManager().getJails()) {
+            if(j.getWorld() == null) continue;
+
+            LinkedHashSet<Long> chunks = this.getWorldChunks(wanted, j.getWorldName());
+            left -= this.add(chunks, j.getTeleportIn(), left);
+
+            for(Cell c : j.getCells()) {
+                left -= this.add(chunks, c.getTeleport(), left);
+                left -= this.add(chunks, c.getChestLocation(), left);
+
+                for(SimpleLocation s : c.getSigns())
+                    if(s.getWorldName().equalsIgnoreCase(j.getWorldName()))
+                        left -= this.add(chunks, s.getLocation(), left);
+            }
+        }
+
+        //Then the rest of each jail, but only when the whole of it fits
+        for(Jail j : pl.getJailManager().getJails()) {
+            if(j.getWorld() == null) continue;
+
+            Location min = j.getMinPoint(), max = j.getMaxPoint();
+            int minX = Math.min(min.getBlockX(), max.getBlockX()) >> 4, maxX = Math.max(min.getBlockX(), max.getBlockX()) >> 4;
+            int minZ = Math.min(min.getBlockZ(), max.getBlockZ()) >> 4, maxZ = Math.max(min.getBlockZ(), max.getBlockZ()) >> 4;
+
+            LinkedHashSet<Long> chunks = this.getWorldChunks(wanted, j.getWorldName());
+            int missing = 0;
+            for(int x = minX; x <= maxX && missing <= left; x++)
+                for(int z = minZ; z <= maxZ && missing <= left; z++)
+                    if(!chunks.contains(Util.getChunkKey(x, z))) missing++;
+
+            if(missing > left) {
+                pl.debug("The chunks of the jail " + j.getName() + " don't fit in the chunk ticket budget, only its teleports, chests and signs are kept loaded.");
+                continue;
+            }
+
+            for(int x = minX; x <= maxX; x++)
+                for(int z = minZ; z <= maxZ; z++)
+                    chunks.add(Util.getChunkKey(x, z));
+
+            left -= missing;
+        }
+
+        return wanted;
+    }
+
+    private LinkedHashSet<Long> getWorldChunks(HashMap<String, LinkedHashSet<Long>> wanted, String world) {
+        LinkedHashSet<Long> chunks = wanted.get(world);
+        if(chunks == null) {
+            chunks = new LinkedHashSet<Long>();
+            wanted.put(world, chunks);
+        }
+
+        return chunks;
+    }
+
+    /** Adds the chunk of the location, if there is room left, and returns how many chunks were added. */
+    private int add(LinkedHashSet<Long> chunks, Location loc, int left) {
+        if(loc == null || left <= 0) return 0;
+        return chunks.add(Util.getChunkKey(loc.getBlockX() >> 4, loc.getBlockZ() >> 4)) ? 1 : 0;
+    }
+}
@@ -0,0 +1,189 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+
+import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.enums.Settings;
+
+/**
+ * Runs the console commands from the config for when prisoners are jailed and released.
+ *
+ * <p>&nbsp;</p>
+ *
+ * The commands are compiled into {@link CommandTemplate templates} when the settings are
+ * loaded instead of every time they're run. Normally they're dispatched right away, but
+ * while the {@link BatchProcessor} is working through lots of prisoners they're queued and
+ * dispatched over the ticks, as many as fit in the batch budget each tick.
+ *
+ * <p>&nbsp;</p>
+ *
+ * When the timing of the commands is turned on, how long each command takes is kept track of
+ * by its name and any which take longer than {@link #SLOW_COMMAND} are logged, so another
+ * plugin's slow command is easy to spot.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class CommandDispatcher {
+    /** How long, in milliseconds, a command can take before it is logged as being slow. */
+    public static final long SLOW_COMMAND = 50L;
+
+    private JailMain pl;
+    private CommandTemplate[] onJail, onRelease;
+    private ArrayDeque<String> queue;
+    private HashMap<String, Timing> timings;
+    private boolean scheduled, timing;
+
+    protected CommandDispatcher(JailMain plugin) {
+        this.pl = plugin;
+        this.queue = new ArrayDeque<String>();
+        this.timings = new HashMap<String, Timing>();
+        this.scheduled = false;
+        this.loadCommands();
+    }
+
+    /** Compiles the commands from the config and loads whether they're timed. */
+    public void loadCommands() {
+        this.onJail = CommandTemplate.compileAll(pl.getConfig().getStringList(Settings.COMMANDSONJAIL.getPath()));
+        this.onRelease = CommandTemplate.compileAll(pl.getConfig().getStringList(Settings.COMMANDSONRELEASE.getPath()));
+        this.timing = pl.getConfig().getBoolean(Settings.COMMANDTIMING.getPath(), false);
+    }
+
+    /**
+     * Runs the commands for when a player is jailed.
+     *
+     * @param player who was jailed
+     * @param prisoner data of the player
+     */
+    public void dispatchJailCommands(Player player, Prisoner prisoner) {
+        this.dispatchAll(this.onJail, player, prisoner);
+    }
+
+    /**
+     * Runs the commands for when a player is released.
+     *
+     * @param player who was released
+     * @param prisoner data of the player
+     */
+    public void dispatchReleaseCommands(Player player, Prisoner prisoner) {
+        this.dispatchAll(this.onRelease, player, prisoner);
+    }
+
+    /** Gets the amount of commands waiting to be dispatched. */
+    public int getQueuedCount() {
+        return this.queue.size();
+    }
+
+    /** Gets how long the commands have taken, by their name, empty unless the timing of them is turned on. */
+    public Map<String, Timing> getTimings() {
+        return Collections.unmodifiableMap(this.timings);
+    }
+
+    /** Dispatches every command which is waiting, should be called when the plugin is disabled. */
+    public void finish() {
+        while(!this.queue.isEmpty())
+            this.dispatch(this.queue.poll());
+    }
+
+    private void dispatchAll(CommandTemplate[] commands, Player player, Prisoner prisoner) {
+        if(commands.length == 0) return;
+
+        String name = player.getName();
+        String uuid = player.getUniqueId().toString();
+        boolean later = pl.getBatchProcessor().isWorking();
+
+        for(CommandTemplate c : commands) {
+            String command = c.render(name, uuid, prisoner.getReason());
+            if(later) this.queue.add(command);
+            else this.dispatch(command);
+        }
+
+        if(later) this.scheduleNextTick();
+    }
+
+    private void dispatch(String command) {
+        if(!this.timing) {
+            pl.getServer().dispatchCommand(pl.getServer().getConsoleSender(), command);
+            return;
+        }
+
+        long st = System.nanoTime();
+        pl.getServer().dispatchCommand(pl.getServer().getConsoleSender(), command);
+        long took = System.nanoTime() - st;
+
+        String trimmed = command.trim();
+        int space = trimmed.indexOf(' ');
+        String label = (space == -1 ? trimmed : trimmed.substring(0, space)).toLowerCase();
+
+        Timing t = this.timings.get(label);
+        if(t == null) {
+            t = new Timing();
+            this.timings.put(label, t);
+        }
+
+        t.add(took);
+
+        if(took >= TimeUnit.MILLISECONDS.toNanos(SLOW_COMMAND))
+            pl.getLogger().warning("The command '" + command + "' took " + TimeUnit.NANOSECONDS.toMillis(took) + " millis to run, " + t.getAverage() + " millis on average.");
+    }
+
+    private void scheduleNextTick() {
+        if(this.scheduled) return;
+
+        this.scheduled = true;
+        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+            public void run() {
+                scheduled = false;
+                dispatchQueued();
+            }
+        }, 1L);
+    }
+
+    private void dispatchQueued() {
+        long deadline = System.nanoTime() + pl.getBatchProcessor().getBudget();
+
+        //Always dispatch at least one, otherwise a budget
+        //that is too low would mean they never run
+        do {
+            String command = this.queue.poll();
+            if(command == null) break;
+
+            this.dispatch(command);
+        } while(System.nanoTime() < deadline);
+
+        if(!this.queue.isEmpty()) this.scheduleNextTick();
+    }
+
+    /** How long a command has taken to run. */
+    public static class Timing {
+        private long count, total, max;
+
+        private void add(long nanos) {
+            this.count++;
+            this.total += nanos;
+            if(nanos > this.max) this.max = nanos;
+        }
+
+        /** Gets how many times the command has been run. */
+        public long getCount() {
+            return this.count;
+        }
+
+        /** Gets how long, in milliseconds, the command took on average. */
+        public long getAverage() {
+            return this.count == 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(this.total / this.count);
+        }
+
+        /** Gets the longest, in milliseconds, the command has taken. */
+        public long getMax() {
+            return TimeUnit.NANOSECONDS.toMillis(this.max);
+        }
+    }
+}
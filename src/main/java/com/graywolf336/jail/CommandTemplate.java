@@ -0,0 +1,126 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A console command compiled into its literal parts and the variables between them,
+ * <strong>%p%</strong>, <strong>%player%</strong>, <strong>%uuid%</strong> and <strong>%reason%</strong>.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Unlike the {@link PrisonerTemplate} the color codes are left alone, as they're commands
+ * and not messages, and the values are put in as they are instead of being read as a
+ * replacement pattern, so a reason with a dollar sign in it doesn't break the command.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class CommandTemplate {
+    private static final String[] TOKENS = { "%p%", "%player%", "%uuid%", "%reason%" };
+    private static final int PLAYER = 0, PLAYERNAME = 1, UUID = 2, REASON = 3;
+
+    private String command;
+    private String[] literals;
+    private int[] variables;
+
+    private CommandTemplate(String command, String[] literals, int[] variables) {
+        this.command = command;
+        this.literals = literals;
+        this.variables = variables;
+    }
+
+    /**
+     * Compiles the given command.
+     *
+     * @param command to compile, as it is in the config
+     * @return the compiled template of the command
+     */
+    public static CommandTemplate compile(String command) {
+        List<String> literals = new ArrayList<String>();
+        List<Integer> variables = new ArrayList<Integer>();
+
+        int last = 0;
+        int start = command.indexOf('%');
+        while(start != -1) {
+            int found = -1;
+            for(int i = 0; i < TOKENS.length; i++) {
+                if(command.startsWith(TOKENS[i], start)) {
+                    found = i;
+                    break;
+                }
+            }
+
+            if(found == -1) {
+                start = command.indexOf('%', start + 1);
+            }else {
+                literals.add(command.substring(last, start));
+                variables.add(found);
+                last = start + TOKENS[found].length();
+                start = command.indexOf('%', last);
+            }
+        }
+
+        literals.add(command.substring(last));
+
+        int[] vars = new int[variables.size()];
+        for(int i = 0; i < vars.length; i++)
+            vars[i] = variables.get(i);
+
+        return new CommandTemplate(command, literals.toArray(new String[literals.size()]), vars);
+    }
+
+    /**
+     * Compiles all of the given commands.
+     *
+     * @param commands to compile
+     * @return the compiled templates, in the same order
+     */
+    public static CommandTemplate[] compileAll(List<String> commands) {
+        CommandTemplate[] templates = new CommandTemplate[commands.size()];
+        for(int i = 0; i < templates.length; i++)
+            templates[i] = compile(commands.get(i));
+
+        return templates;
+    }
+
+    /** Gets the command as it was before it was compiled. */
+    public String getCommand() {
+        return this.command;
+    }
+
+    /**
+     * Renders the command with the given values.
+     *
+     * @param player the name of the player, for <strong>%p%</strong> and <strong>%player%</strong>
+     * @param uuid the uuid of the player
+     * @param reason the reason they were jailed
+     * @return the command with the variables replaced
+     */
+    public String render(String player, String uuid, String reason) {
+        if(this.variables.length == 0) return this.literals[0];
+
+        StringBuilder sb = new StringBuilder(this.command.length() + 32);
+        sb.append(this.literals[0]);
+
+        for(int i = 0; i < this.variables.length; i++) {
+            switch(this.variables[i]) {
+                case PLAYER:
+                case PLAYERNAME:
+                    sb.append(player);
+                    break;
+                case UUID:
+                    sb.append(uuid);
+                    break;
+                case REASON:
+                    sb.append(reason);
+                    break;
+            }
+
+            sb.append(this.literals[i + 1]);
+        }
+
+        return sb.toString();
+    }
+}
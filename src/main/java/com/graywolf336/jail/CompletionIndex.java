@@ -0,0 +1,130 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sorted index of names, used to answer tab completions by their prefix.
+ *
+ * <p>&nbsp;</p>
+ *
+ * The names are kept sorted, ignoring their case, as they're added and removed
+ * so answering a prefix is a binary search to the first name which could match
+ * followed by reading until one doesn't. No more than {@link #MAX_RESULTS} are
+ * ever returned, so a server with thousands of players doesn't send all of them
+ * with every key press.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class CompletionIndex {
+    /** The most results any prefix lookup returns. */
+    public static final int MAX_RESULTS = 50;
+
+    private ArrayList<String> keys;
+    private ArrayList<String> names;
+
+    public CompletionIndex() {
+        this.keys = new ArrayList<String>();
+        this.names = new ArrayList<String>();
+    }
+
+    /**
+     * Adds the name to the index, replacing the one which differs only by its case.
+     *
+     * @param name to add
+     */
+    public synchronized void add(String name) {
+        String key = name.toLowerCase();
+        int i = Collections.binarySearch(this.keys, key);
+
+        if(i >= 0) {
+            this.names.set(i, name);
+        }else {
+            this.keys.add(-i - 1, key);
+            this.names.add(-i - 1, name);
+        }
+    }
+
+    /**
+     * Removes the name from the index, ignoring its case.
+     *
+     * @param name to remove
+     */
+    public synchronized void remove(String name) {
+        int i = Collections.binarySearch(this.keys, name.toLowerCase());
+
+        if(i >= 0) {
+            this.keys.remove(i);
+            this.names.remove(i);
+        }
+    }
+
+    /** Removes every name from the index. */
+    public synchronized void clear() {
+        this.keys.clear();
+        this.names.clear();
+    }
+
+    /** Gets the amount of names in the index. */
+    public synchronized int size() {
+        return this.keys.size();
+    }
+
+    /**
+     * Gets the names which start with the given prefix, ignoring case.
+     *
+     * @param prefix the names should start with, empty for all of them
+     * @return the sorted names, at most {@link #MAX_RESULTS} of them
+     */
+    public List<String> getByPrefix(String prefix) {
+        return this.getByPrefix(prefix, null);
+    }
+
+    /**
+     * Gets the names which start with the given prefix, ignoring case, and the filter accepts.
+     *
+     * @param prefix the names should start with, empty for all of them
+     * @param filter which the names have to pass, null to take all of them
+     * @return the sorted names, at most {@link #MAX_RESULTS} of them
+     */
+    public List<String> getByPrefix(String prefix, Filter filter) {
+        String key = prefix.toLowerCase();
+        List<String> results = new ArrayList<String>();
+        List<String> candidates;
+
+        //Copy out the slice so the filters don't run while we're holding the lock
+        synchronized(this) {
+            int i = Collections.binarySearch(this.keys, key);
+            if(i < 0) i = -i - 1;
+
+            int end = i;
+            while(end < this.keys.size() && this.keys.get(end).startsWith(key) && (filter != null || end - i < MAX_RESULTS))
+                end++;
+
+            candidates = new ArrayList<String>(this.names.subList(i, end));
+        }
+
+        for(String name : candidates) {
+            if(filter == null || filter.accept(name)) {
+                results.add(name);
+                if(results.size() == MAX_RESULTS) break;
+            }
+        }
+
+        return results;
+    }
+
+    /** Decides which of the names matching a prefix are returned. */
+    public interface Filter {
+        /**
+         * Checks whether the name should be included in the results.
+         *
+         * @param name which matched the prefix
+         * @return true to include it, false to leave it out
+         */
+        public boolean accept(String name);
+    }
+}
@@ -5,6 +5,8 @@ import java.util.UUID;
 
 import org.bukkit.Location;
 
+import com.graywolf336.jail.beans.CuffedPlayer;
+
 /**
  * Manages the handcuffing of players.
  * 
@@ -18,21 +20,24 @@ import org.bukkit.Location;
  * 	<li>{@link #addHandCuffs(UUID, Location) addHandCuffs}</li>
  * 	<li>{@link #removeHandCuffs(UUID) removeHandCuffs}</li>
  * 	<li>{@link #isHandCuffed(UUID) isHandCuffed}</li>
+ * 	<li>{@link #getCuffedPlayer(UUID) getCuffedPlayer}</li>
  * 	<li>{@link #getLocation(UUID) getLocation}</li>
  * </ul>
  * 
+ * The handcuff listener is only registered while someone is handcuffed.
+ * 
  * @author graywolf336
  * @since 2.6.3
- * @version 1.0.2
+ * @version 1.2.0
  */
 public class HandCuffManager {
-    private HashMap<UUID, Long> handcuffed;
-    private HashMap<UUID, Location> locs;
+    private JailMain pl;
+    private HashMap<UUID, CuffedPlayer> handcuffed;
 
     /** Constructs a new HandCuff Manager, for handling all the handcuffing. */
-    protected HandCuffManager() {
-        this.handcuffed = new HashMap<UUID, Long>();
-        this.locs = new HashMap<UUID, Location>();
+    protected HandCuffManager(JailMain plugin) {
+        this.pl = plugin;
+        this.handcuffed = new HashMap<UUID, CuffedPlayer>();
     }
 
     /**
@@ -42,8 +47,10 @@ public class HandCuffManager {
      * @param location where the player was handcuffed, so they can't move
      */
     public void addHandCuffs(UUID uuid, Location location) {
-        this.handcuffed.put(uuid, System.currentTimeMillis());
-        this.locs.put(uuid, location);
+        this.handcuffed.put(uuid, new CuffedPlayer(uuid, location));
+
+        if(this.handcuffed.size() == 1)
+            pl.getListenerManager().setHandCuffListenerEnabled(true);
     }
 
     /**
@@ -52,8 +59,8 @@ public class HandCuffManager {
      * @param uuid of the person to remove the handcuffs from
      */
     public void removeHandCuffs(UUID uuid) {
-        this.handcuffed.remove(uuid);
-        this.locs.remove(uuid);
+        if(this.handcuffed.remove(uuid) != null && this.handcuffed.isEmpty())
+            pl.getListenerManager().setHandCuffListenerEnabled(false);
     }
 
     /**
@@ -66,6 +73,16 @@ public class HandCuffManager {
         return this.handcuffed.containsKey(uuid);
     }
 
+    /**
+     * Gets the handcuffed state of the given player.
+     * 
+     * @param uuid of the player to get
+     * @return the {@link CuffedPlayer} state, null if they aren't handcuffed
+     */
+    public CuffedPlayer getCuffedPlayer(UUID uuid) {
+        return this.handcuffed.get(uuid);
+    }
+
     /**
      * Gets the next Long time we should send a message to the player.
      * 
@@ -73,7 +90,8 @@ public class HandCuffManager {
      * @return long value of the system time in milliseconds
      */
     public Long getNextMessageTime(UUID uuid) {
-        return this.handcuffed.get(uuid);
+        CuffedPlayer c = this.handcuffed.get(uuid);
+        return c == null ? null : c.getNextMessageTime();
     }
 
     /**
@@ -82,16 +100,18 @@ public class HandCuffManager {
      * @param uuid of the player we're setting the message time to
      */
     public void updateNextTime(UUID uuid) {
-        this.handcuffed.put(uuid, System.currentTimeMillis() + 10000);
+        CuffedPlayer c = this.handcuffed.get(uuid);
+        if(c != null) c.updateNextMessageTime();
     }
 
     /**
      * Gets the location where the given player was handcuffed at.
      * 
      * @param uuid of the player get the location for
-     * @return the location where the player was handcuffed at
+     * @return a copy of the location where the player was handcuffed at, null if they aren't handcuffed
      */
     public Location getLocation(UUID uuid) {
-        return this.locs.get(uuid);
+        CuffedPlayer c = this.handcuffed.get(uuid);
+        return c == null ? null : c.getLocation();
     }
 }
@@ -0,0 +1,170 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import com.graywolf336.jail.beans.Jail;
+import com.graywolf336.jail.beans.Prisoner;
+
+/**
+ * Turns the inventories of prisoners into their Base64 strings away from the main thread.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Serializing a full inventory, with shulker boxes and books in it, takes a few milliseconds
+ * so on the main thread we only copy the items and the rest is done on a worker. Once it is
+ * done the string is handed to the prisoner, on the main thread, and only then is their jail
+ * saved. Anything which needs the prisoner's inventory before then, like releasing them,
+ * should call {@link #complete(Prisoner)} first which waits for it to be done.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.1
+ */
+public class InventorySerializer {
+    private JailMain pl;
+    private ExecutorService executor;
+    private ConcurrentHashMap<UUID, Pending> pending;
+    private volatile boolean stopping;
+
+    protected InventorySerializer(JailMain plugin) {
+        this.pl = plugin;
+        this.pending = new ConcurrentHashMap<UUID, Pending>();
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Jail Inventory Serializer");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Copies the items of the inventory, which can then be changed or cleared right away.
+     *
+     * @param inventory to copy the items of
+     * @return the copied items, in the same slots
+     */
+    public static ItemStack[] snapshot(Inventory inventory) {
+        ItemStack[] items = new ItemStack[inventory.getSize()];
+        for(int i = 0; i < items.length; i++) {
+            ItemStack item = inventory.getItem(i);
+            items[i] = item == null ? null : item.clone();
+        }
+
+        return items;
+    }
+
+    /**
+     * Serializes the items into the prisoner's inventory and then saves the jail, must be called on the main thread.
+     *
+     * <p>
+     *
+     * The items are serialized the same as {@link Util#toBase64(Inventory)}, so they're
+     * restored by {@link Util#restoreInventory(org.bukkit.entity.Player, Prisoner)} like always.
+     *
+     * @param prisoner whose inventory the items are
+     * @param items copied by {@link #snapshot(Inventory)}, which nothing else has a hold of
+     * @param jail to save once the inventory has been set, can be null
+     */
+    public void serialize(final Prisoner prisoner, final ItemStack[] items, final Jail jail) {
+        //Anything already going for them has to be done first, otherwise it could overwrite this one
+        this.complete(prisoner);
+
+        final Pending p = new Pending(prisoner, new FutureTask<String>(new Callable<String>() {
+            public String call() throws Exception {
+                return Util.itemStackArrayToBase64(items);
+            }
+        }));
+
+        this.pending.put(prisoner.getUUID(), p);
+        this.executor.execute(new Runnable() {
+            public void run() {
+                p.task.run();
+
+                //While shutting down the pending inventories are all completed on the main thread,
+                //and a disabled plugin can't schedule anything anyways
+                if(stopping || !pl.isEnabled()) return;
+
+                //Hand it over on the main thread, then save the jail now that it is set
+                pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+                    public void run() {
+                        //Only if it is still the one pending, it could have been completed already
+                        if(pending.get(prisoner.getUUID()) == p) {
+                            complete(prisoner);
+                            if(jail != null) pl.getBatchProcessor().save(jail);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Waits for the prisoner's inventory to be serialized, if it is being, and sets it, must be called on the main thread.
+     *
+     * @param prisoner whose inventory to wait on
+     */
+    public void complete(Prisoner prisoner) {
+        Pending p = this.pending.remove(prisoner.getUUID());
+        if(p == null) return;
+
+        try {
+            p.prisoner.setInventory(p.task.get());
+        }catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pl.getLogger().severe("Interrupted while waiting on the inventory of " + prisoner.getLastKnownName() + " to be saved.");
+        }catch(ExecutionException e) {
+            if(pl.inDebug()) e.getCause().printStackTrace();
+            pl.getLogger().severe("Unable to save the inventory of " + prisoner.getLastKnownName() + ": " + e.getCause().getMessage());
+        }
+    }
+
+    /** Checks whether the prisoner's inventory is still being serialized. */
+    public boolean isPending(Prisoner prisoner) {
+        return this.pending.containsKey(prisoner.getUUID());
+    }
+
+    /** Gets the amount of inventories which are still being serialized. */
+    public int getPendingCount() {
+        return this.pending.size();
+    }
+
+    /** Waits for every inventory to be serialized and stops the worker, should be called when the plugin is disabled. */
+    public void shutdown() {
+        this.stopping = true;
+
+        for(Pending p : new ArrayList<Pending>(this.pending.values()))
+            this.complete(p.prisoner);
+
+        //Let the worker finish up, so it doesn't try to hand anything over once we're disabled
+        this.executor.shutdown();
+        try {
+            if(!this.executor.awaitTermination(5, TimeUnit.SECONDS)) this.executor.shutdownNow();
+        }catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.executor.shutdownNow();
+        }
+    }
+
+    private static class Pending {
+        private Prisoner prisoner;
+        private FutureTask<String> task;
+
+        private Pending(Prisoner prisoner, FutureTask<String> task) {
+            this.prisoner = prisoner;
+            this.task = task;
+        }
+    }
+}
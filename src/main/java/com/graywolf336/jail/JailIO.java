@@ -10,6 +10,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -31,16 +32,21 @@ import com.graywolf336.jail.enums.Settings;
  *
  * @author graywolf336
  * @since 2.x.x
- * @version 3.0.0
+ * @version 3.0.3
  *
  */
 public class JailIO {
     private JailMain pl;
     private FileConfiguration flat, records;
-    private Connection con;
+    private final Object recordsLock = new Object();
+    private Connection con, lookupCon;
+    private final Object lookupLock = new Object();
+    private String mysqlUrl, mysqlUsername, mysqlPassword;
     private int storage = -1; //0 = flatfile, 1 = sqlite, 2 = mysql
     private String prefix;
     private boolean changed = false;
+    private boolean deferring = false;
+    private LinkedHashSet<Jail> deferred = new LinkedHashSet<Jail>();
 
     protected JailIO(JailMain plugin) {
         this.pl = plugin;
@@ -111,6 +117,9 @@ public class JailIO {
             changed = true;
         }
 
+        //The record lookups connect again with whatever the settings are now
+        closeLookupConnection();
+
         pl.debug("The storage type " + st + " with the type being " + storage + ".");
         if(!pl.inDebug()) pl.getLogger().info("Storage type selected: " + st);
 
@@ -142,9 +151,12 @@ public class JailIO {
                 try {
                     Class.forName("com.mysql.jdbc.Driver");
                     pl.getLogger().info("Connecting to the MySQL database.");
-                    Connection mysqlConnection = DriverManager.getConnection("jdbc:mysql://" + pl.getConfig().getString("storage.mysql.host") + ":"
+                    mysqlUrl = "jdbc:mysql://" + pl.getConfig().getString("storage.mysql.host") + ":"
                             + pl.getConfig().getString("storage.mysql.port") + "/"
-                            + pl.getConfig().getString("storage.mysql.database"), pl.getConfig().getString("storage.mysql.username"), pl.getConfig().getString("storage.mysql.password"));
+                            + pl.getConfig().getString("storage.mysql.database");
+                    mysqlUsername = pl.getConfig().getString("storage.mysql.username");
+                    mysqlPassword = pl.getConfig().getString("storage.mysql.password");
+                    Connection mysqlConnection = DriverManager.getConnection(mysqlUrl, mysqlUsername, mysqlPassword);
                     mysqlConnection.setAutoCommit(true);
                     this.con = mysqlConnection;
                     pl.debug("Connection created for MySQL.");
@@ -211,8 +223,43 @@ public class JailIO {
         }
     }
 
+    /**
+     * Gets the connection the record lookups use, which is their own so it is never shared between threads.
+     *
+     * <p>
+     *
+     * Must only be used while holding the lookup lock.
+     *
+     * @return The connection for the record lookups.
+     * @throws SQLException if we can't connect
+     */
+    private Connection getLookupConnection() throws SQLException {
+        if(lookupCon == null || lookupCon.isClosed() || !lookupCon.isValid(10)) {
+            lookupCon = DriverManager.getConnection(mysqlUrl, mysqlUsername, mysqlPassword);
+            lookupCon.setAutoCommit(true);
+            pl.debug("Connection created for the record lookups.");
+        }
+
+        return lookupCon;
+    }
+
+    /** Closes the connection of the record lookups, the next lookup opens a new one. */
+    private void closeLookupConnection() {
+        synchronized(lookupLock) {
+            try {
+                if(lookupCon != null) lookupCon.close();
+            } catch (SQLException e) {
+                pl.debug("Unable to close the connection of the record lookups: " + e.getMessage());
+            }
+
+            lookupCon = null;
+        }
+    }
+
     /** Closes the sql connection. */
     protected void closeConnection() {
+        closeLookupConnection();
+
         switch(storage) {
             case 1:
             case 2:
@@ -760,12 +807,48 @@ public class JailIO {
         pl.debug("Saving everything took " + (System.currentTimeMillis() - st) + " millis.");
     }
 
+    /**
+     * Holds back the saving of jails, <strong>on the main thread</strong>, until {@link #flushSaves()} is called.
+     *
+     * <p>
+     *
+     * A jail which is saved several times while they're held back is only saved once.
+     */
+    protected void deferSaves() {
+        this.deferring = true;
+    }
+
+    /** Saves the jails which were held back by {@link #deferSaves()} and stops holding them back. */
+    protected void flushSaves() {
+        this.deferring = false;
+        if(this.deferred.isEmpty()) return;
+
+        List<Jail> jails = new ArrayList<Jail>(this.deferred);
+        this.deferred.clear();
+
+        long st = System.currentTimeMillis();
+        for(Jail j : jails) {
+            //It could have been deleted while held back, don't write it back
+            if(pl.getJailManager().getJail(j.getName()) != j) continue;
+
+            this.saveJail(j);
+        }
+
+        pl.debug("Saving the " + jails.size() + " jails which were held back took " + (System.currentTimeMillis() - st) + " millis.");
+    }
+
     /**
      * Saves the provided {@link Jail jail} to the storage system we are using.
      *
      * @param j The jail to save.
      */
     protected void saveJail(Jail j) {
+        //Hold the save back until they're flushed, only when on the main thread as that's the only one flushing them
+        if(this.deferring && pl.getServer().isPrimaryThread()) {
+            this.deferred.add(j);
+            return;
+        }
+
         if(j.isEnabled()) {
             switch(storage) {
                 case 1:
@@ -1115,6 +1198,12 @@ public class JailIO {
                 else
                     flat.set("jails." + j.getName() + ".cells." + c.getName() + ".prisoner", null);
 
+                //The whole file is written when the jail is saved, so don't write it for each prisoner
+                if(this.deferring && j.isEnabled() && pl.getServer().isPrimaryThread()) {
+                    this.deferred.add(j);
+                    break;
+                }
+
                 try {
                     flat.save(new File(pl.getDataFolder(), "data.yml"));
                 } catch (IOException e) {
@@ -1202,6 +1291,7 @@ public class JailIO {
      */
     protected void removeJail(Jail j) {
         String name = j.getName();
+        this.deferred.remove(j);
 
         switch(storage) {
             case 1:
@@ -1279,19 +1369,22 @@ public class JailIO {
                 }
                 break;
             default:
-                if(records == null) records = YamlConfiguration.loadConfiguration(new File(pl.getDataFolder(), "records.yml"));
+                //The records can be read by the lookups off of the main thread
+                synchronized(recordsLock) {
+                    if(records == null) records = YamlConfiguration.loadConfiguration(new File(pl.getDataFolder(), "records.yml"));
 
-                List<String> previous = records.getStringList(uuid);
-                previous.add(Lang.RECORDENTRY.get(new String[] { date, username, jailer, String.valueOf(time), reason, uuid }));
+                    List<String> previous = records.getStringList(uuid);
+                    previous.add(Lang.RECORDENTRY.get(new String[] { date, username, jailer, String.valueOf(time), reason, uuid }));
 
-                records.set(uuid, previous);
+                    records.set(uuid, previous);
 
-                try {
-                    records.save(new File(pl.getDataFolder(), "records.yml"));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    pl.getLogger().severe("---------- Jail Error!!! ----------");
-                    pl.getLogger().severe("Saving the records.yml file failed while putting an entry in for '" + username + "'.");
+                    try {
+                        records.save(new File(pl.getDataFolder(), "records.yml"));
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        pl.getLogger().severe("---------- Jail Error!!! ----------");
+                        pl.getLogger().severe("Saving the records.yml file failed while putting an entry in for '" + username + "'.");
+                    }
                 }
                 break;
         }
@@ -1302,42 +1395,56 @@ public class JailIO {
      *
      * @param username the of the prisoner's records to get.
      * @return A List of strings containing the record entries.
-     * @deprecated This calls getOfflinePlayer which is a blocking call from Bukkit
+     * @deprecated This calls getOfflinePlayer which is a blocking call from Bukkit, use {@link RecordLookupManager} instead
      */
+    @Deprecated
     public List<String> getRecordEntries(String username) {
-        UUID uuid = pl.getServer().getOfflinePlayer(username).getUniqueId();
+        return this.getRecordEntries(pl.getServer().getOfflinePlayer(username).getUniqueId());
+    }
+
+    /**
+     * Gets all the record entries for the given player.
+     * 
+     * <p>
+     * 
+     * This can be called off of the main thread, which is where {@link RecordLookupManager} calls it from.
+     *
+     * @param uuid of the prisoner's records to get.
+     * @return A List of strings containing the record entries.
+     */
+    public List<String> getRecordEntries(UUID uuid) {
         List<String> entries = new ArrayList<String>();
 
         switch(storage) {
             case 1:
                 break;
             case 2:
-                try {
-                    Connection c = getConnection();
-                    if (c == null) {
-                        break;
-                    }
+                //Not the shared connection, the saving uses it on the main thread
+                synchronized(lookupLock) {
+                    try {
+                        PreparedStatement ps = getLookupConnection().prepareStatement("SELECT * FROM " + prefix + "records where uuid = ?");
+                        ps.setString(1, uuid.toString());
+                        ResultSet set = ps.executeQuery();
 
-                    PreparedStatement ps = c.prepareStatement("SELECT * FROM " + prefix + "records where uuid = ?");
-                    ps.setString(1, uuid.toString());
-                    ResultSet set = ps.executeQuery();
+                        while(set.next()) {
+                            entries.add(Lang.RECORDENTRY.get(new String[] { set.getString("date"), set.getString("username"), set.getString("jailer"), String.valueOf(set.getLong("time")), set.getString("reason"), set.getString("uuid") }));
+                        }
 
-                    while(set.next()) {
-                        entries.add(Lang.RECORDENTRY.get(new String[] { set.getString("date"), set.getString("username"), set.getString("jailer"), String.valueOf(set.getLong("time")), set.getString("reason"), set.getString("uuid") }));
+                        set.close();
+                        ps.close();
+                    } catch (SQLException e) {
+                        e.printStackTrace();
+                        pl.getLogger().severe("---------- Jail Error!!! ----------");
+                        pl.getLogger().severe("Error while getting all the record entries for '" + uuid + "', please check the error and fix what is wrong.");
                     }
-
-                    set.close();
-                    ps.close();
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                    pl.getLogger().severe("---------- Jail Error!!! ----------");
-                    pl.getLogger().severe("Error while getting all the record entries for '" + uuid + "', please check the error and fix what is wrong.");
                 }
                 break;
             default:
-                if(records == null) records = YamlConfiguration.loadConfiguration(new File(pl.getDataFolder(), "records.yml"));
+                synchronized(recordsLock) {
+                    if(records == null) records = YamlConfiguration.loadConfiguration(new File(pl.getDataFolder(), "records.yml"));
 
-                entries = records.getStringList(uuid.toString());
+                    entries = records.getStringList(uuid.toString());
+                }
                 break;
         }
 
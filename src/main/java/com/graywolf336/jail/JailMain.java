@@ -6,7 +6,6 @@ import java.util.concurrent.TimeUnit;
 
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
-import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -22,7 +21,6 @@ import com.graywolf336.jail.interfaces.IJailStickManager;
 import com.graywolf336.jail.listeners.CacheListener;
 import com.graywolf336.jail.listeners.CellSignListener;
 import com.graywolf336.jail.listeners.EntityListener;
-import com.graywolf336.jail.listeners.HandCuffListener;
 import com.graywolf336.jail.listeners.JailingListener;
 import com.graywolf336.jail.listeners.MoveProtectionListener;
 import com.graywolf336.jail.listeners.PlayerListener;
@@ -37,18 +35,27 @@ import com.graywolf336.jail.listeners.WorldListener;
  * @version 3.0.0
  */
 public class JailMain extends JavaPlugin {
+    private AFKManager afk;
+    private BatchProcessor bp;
+    private CellSignUpdater csu;
+    private CommandDispatcher cd;
+    private ChunkTicketManager ctm;
     private CommandHandler cmdHand;
     private HandCuffManager hcm;
     private JailHandler jh;
     private JailIO io;
     private JailManager jm;
     private IJailPayManager jpm;
+    private InventorySerializer invs;
     private IJailStickManager jsm;
     private JailTimer jt;
     private JailVoteManager jvm;
+    private ListenerManager lm;
     private PrisonerManager pm;
+    private RecordLookupManager rlm;
     private ScoreBoardManager sbm;
-    private MoveProtectionListener mpl;
+    private Teleporter tp;
+    private ViolationManager vm;
     private Update update;
     private boolean debug = false;
     private int updateCheckTask = -1;
@@ -60,10 +67,12 @@ public class JailMain extends JavaPlugin {
         debug = getConfig().getBoolean(Settings.DEBUG.getPath());
         if(debug) getLogger().info("Debugging enabled.");
 
-        hcm = new HandCuffManager();
+        lm = new ListenerManager(this);
+        hcm = new HandCuffManager(this);
         jm = new JailManager(this);
         io = new JailIO(this);
         io.loadLanguage();
+        tp = new Teleporter(this);
 
         //If the prepareStorage returns false, we need to disable the plugin
         if(!io.prepareStorage(true)) {
@@ -73,10 +82,20 @@ public class JailMain extends JavaPlugin {
         }
 
         io.loadJails();
+        //Names only enter and leave the index as prisoners do, so start it off with everyone loaded
+        jm.rebuildPrisonerNames();
 
         cmdHand = new CommandHandler(this);
         jh = new JailHandler(this);
         pm = new PrisonerManager(this);
+        vm = new ViolationManager(this);
+        csu = new CellSignUpdater(this);
+        rlm = new RecordLookupManager(this);
+        ctm = new ChunkTicketManager(this);
+        bp = new BatchProcessor(this);
+        invs = new InventorySerializer(this);
+        cd = new CommandDispatcher(this);
+        afk = new AFKManager(this);
         
         try {
             jvm = new JailVoteManager(this);
@@ -89,22 +108,20 @@ public class JailMain extends JavaPlugin {
         plm.registerEvents(new CacheListener(this), this);
         plm.registerEvents(new CellSignListener(this), this);
         plm.registerEvents(new EntityListener(this), this);
-        plm.registerEvents(new HandCuffListener(this), this);
         plm.registerEvents(new JailingListener(this), this);
         plm.registerEvents(new PlayerListener(this), this);
         plm.registerEvents(new ProtectionListener(this), this);
         plm.registerEvents(new WorldListener(this), this);
 
-        //Only register the move protection listener if this is enabled in the
-        //config when we first start the plugin. The reason for this change is
-        //that the move event is called a ton of times per single move and so
-        //not registering this event listener will hopefully safe some performance.
-        //But doing this also forces people to restart their server if they to
-        //enable it after disabling it.
-        this.reloadMoveProtection();
+        //Only register the listeners of the features which are enabled in the
+        //config, the move event especially is called a ton of times per single
+        //move and so not registering it will hopefully save some performance.
+        //The handcuff listener gets registered once someone is handcuffed.
+        lm.reloadListeners();
 
         jt = new JailTimer(this);
         sbm = new ScoreBoardManager(this);
+        addOnlineScoreBoards();
         reloadJailPayManager();
         reloadJailSticks();
         reloadUpdateCheck();
@@ -115,6 +132,19 @@ public class JailMain extends JavaPlugin {
     }
 
     public void onDisable() {
+        if(pm != null)
+            pm.finishScheduledReleases();
+
+        if(bp != null)
+            bp.finish();
+
+        if(cd != null)
+            cd.finish();
+
+        //Wait on the inventories being serialized, so they're in the jails we save below
+        if(invs != null)
+            invs.shutdown();
+
         if(jm != null)
             for(Jail j : jm.getJails())
                 io.saveJail(j);
@@ -123,9 +153,18 @@ public class JailMain extends JavaPlugin {
             if(jt.getTimer() != null)
                 jt.getTimer().stop();
 
+        if(rlm != null)
+            rlm.shutdown();
+
+        if(ctm != null)
+            ctm.removeAll();
+
         if(io != null)
             io.closeConnection();
 
+        if(lm != null)
+            lm.unregisterAll();
+
         getServer().getScheduler().cancelTasks(this);
 
         update = null;
@@ -139,6 +178,16 @@ public class JailMain extends JavaPlugin {
         jsm = null;
         io = null;
         hcm = null;
+        vm = null;
+        csu = null;
+        bp = null;
+        invs = null;
+        cd = null;
+        afk = null;
+        ctm = null;
+        rlm = null;
+        tp = null;
+        lm = null;
     }
 
     private void loadConfig() {
@@ -215,7 +264,20 @@ public class JailMain extends JavaPlugin {
         //We don't touch any of the data currently being stored in cache,
         //this way you can transfer from flatfile to mysql or flip flopped.
         getJailIO().prepareStorage(true);
-        reloadMoveProtection();
+        //Reload the max afk time, before the listeners so the afk listener follows it
+        afk.loadSettings();
+        //Register or unregister the listeners of the features turned on/off
+        lm.reloadListeners();
+        //Reload the protection penalties and their window
+        vm.loadPenalties();
+        //Reload how much time we can spend updating cell signs each tick
+        csu.loadBudget();
+        //Reload how much time we can spend on batches of prisoners each tick
+        bp.loadBudget();
+        //Recompile the commands ran on jailing and releasing
+        cd.loadCommands();
+        //Reload whether we keep the chunks of the jails loaded and how many
+        ctm.loadSettings();
         //Reload all that has to do with the scoreboard, name and settings
         reloadScoreBoardManager();
         //Reload the jail sticks
@@ -231,32 +293,16 @@ public class JailMain extends JavaPlugin {
         getServer().getPluginManager().callEvent(new JailPluginReloadedEvent(this));
     }
     
-    /** Reloads/Loads the move protection listener based upon it's previous status and the config. */
-    private void reloadMoveProtection() {
-        boolean moveProtection = getConfig().getBoolean(Settings.MOVEPROTECTION.getPath());
-        
-        //If move protection is not enabled and it used to be,
-        //unregister it.
-        if(!moveProtection && this.mpl != null) {
-            HandlerList.unregisterAll(this.mpl);
-            this.mpl = null;
-            this.debug("The move protection listener is now disabled.");
-        }
-        
-        //If it is enabled and it used to not be, then enable it.
-        if(moveProtection && this.mpl == null) {
-            this.mpl = new MoveProtectionListener(this);
-            getServer().getPluginManager().registerEvents(mpl, this);
-            this.debug("The move protection listener is now enabled.");
-        }
-    }
-
     /** Reloads the scoreboard manager class, useful when something is changed in the config about it. */
     private void reloadScoreBoardManager() {
         this.sbm.removeAllScoreboards();
         this.sbm = null;
         this.sbm = new ScoreBoardManager(this);
+        addOnlineScoreBoards();
+    }
 
+    /** Adds the scoreboard to the prisoners who are already online, if it is enabled, as they won't join again. */
+    private void addOnlineScoreBoards() {
         if(getConfig().getBoolean(Settings.SCOREBOARDENABLED.getPath())) {
             for(Jail j : jm.getJails()) {
                 for(Prisoner p : j.getAllPrisoners().values()) {
@@ -327,6 +373,87 @@ public class JailMain extends JavaPlugin {
         }
     }
 
+    /**
+     * Gets the {@link AFKManager} instance.
+     * 
+     * @return {@link AFKManager} instance
+     */
+    public AFKManager getAFKManager() {
+        return this.afk;
+    }
+
+    /**
+     * Gets the {@link BatchProcessor} instance.
+     * 
+     * @return {@link BatchProcessor} instance
+     */
+    public BatchProcessor getBatchProcessor() {
+        return this.bp;
+    }
+
+    /**
+     * Gets the {@link CellSignUpdater} instance.
+     * 
+     * @return {@link CellSignUpdater} instance
+     */
+    public CellSignUpdater getCellSignUpdater() {
+        return this.csu;
+    }
+
+    /**
+     * Gets the {@link ChunkTicketManager} instance.
+     * 
+     * @return {@link ChunkTicketManager} instance
+     */
+    public ChunkTicketManager getChunkTicketManager() {
+        return this.ctm;
+    }
+
+    /**
+     * Gets the {@link InventorySerializer} instance.
+     * 
+     * @return {@link InventorySerializer} instance
+     */
+    public InventorySerializer getInventorySerializer() {
+        return this.invs;
+    }
+
+    /**
+     * Gets the {@link RecordLookupManager} instance.
+     * 
+     * @return {@link RecordLookupManager} instance
+     */
+    public RecordLookupManager getRecordLookupManager() {
+        return this.rlm;
+    }
+
+    /**
+     * Gets the {@link Teleporter} instance.
+     * 
+     * @return {@link Teleporter} instance
+     */
+    public Teleporter getTeleporter() {
+        return this.tp;
+    }
+
+    /**
+     * Gets the {@link CommandDispatcher} instance.
+     * 
+     * @return {@link CommandDispatcher} instance
+     */
+    public CommandDispatcher getCommandDispatcher() {
+        return this.cd;
+    }
+
+    /**
+     * Gets the {@link JailTimer} instance.
+     * 
+     * @return {@link JailTimer} instance
+     */
+    public JailTimer getJailTimer() {
+        return this.jt;
+    }
+
     /**
      * Gets the {@link HandCuffManager} instance.
      * 
@@ -336,6 +463,24 @@ public class JailMain extends JavaPlugin {
         return this.hcm;
     }
 
+    /**
+     * Gets the {@link ListenerManager} instance.
+     * 
+     * @return {@link ListenerManager} instance
+     */
+    public ListenerManager getListenerManager() {
+        return this.lm;
+    }
+
+    /**
+     * Gets the {@link ViolationManager} instance.
+     * 
+     * @return {@link ViolationManager} instance
+     */
+    public ViolationManager getViolationManager() {
+        return this.vm;
+    }
+
     /**
      * Gets the {@link JailIO} instance.
      * 
@@ -449,6 +594,6 @@ public class JailMain extends JavaPlugin {
      * @deprecated
      */
     public MoveProtectionListener getPlayerMoveListener() {
-        return this.mpl;
+        return this.lm.getListener(MoveProtectionListener.class);
     }
 }
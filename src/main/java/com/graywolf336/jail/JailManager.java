@@ -1,17 +1,16 @@
 package com.graywolf336.jail;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Location;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
 import com.graywolf336.jail.beans.CachePrisoner;
 import com.graywolf336.jail.beans.Cell;
@@ -39,7 +38,7 @@ import com.graywolf336.jail.steps.JailCreationSteps;
  * 
  * @author graywolf336
  * @since 3.0.0
- * @version 1.1.0
+ * @version 1.2.4
  */
 public class JailManager {
     private JailMain plugin;
@@ -47,9 +46,11 @@ public class JailManager {
     private HashMap<String, CreationPlayer> jailCreators;
     private HashMap<String, CreationPlayer> cellCreators;
     private HashMap<String, ConfirmPlayer> confirms;
-    private HashMap<UUID, CachePrisoner> cache;
+    private ConcurrentHashMap<UUID, CachePrisoner> cache;
     private JailCreationSteps jcs;
     private CellCreationSteps ccs;
+    private CompletionIndex jailNames, prisonerNames, playerNames;
+    private HashMap<String, Integer> prisonerNameCounts;
 
     protected JailManager(JailMain plugin) {
         this.plugin = plugin;
@@ -57,9 +58,17 @@ public class JailManager {
         this.jailCreators = new HashMap<String, CreationPlayer>();
         this.cellCreators = new HashMap<String, CreationPlayer>();
         this.confirms = new HashMap<String, ConfirmPlayer>();
-        this.cache = new HashMap<UUID, CachePrisoner>();
+        //The async chat listeners read from the cache, so it has to be safe to use off of the main thread
+        this.cache = new ConcurrentHashMap<UUID, CachePrisoner>();
         this.jcs = new JailCreationSteps();
         this.ccs = new CellCreationSteps();
+        this.jailNames = new CompletionIndex();
+        this.prisonerNames = new CompletionIndex();
+        this.prisonerNameCounts = new HashMap<String, Integer>();
+        this.playerNames = new CompletionIndex();
+
+        for(Player p : plugin.getServer().getOnlinePlayers())
+            this.playerNames.add(p.getName());
     }
 
     /**
@@ -108,15 +117,120 @@ public class JailManager {
      * @return List of jails that matched the prefix
      */
     public List<String> getJailsByPrefix(String prefix) {
-        List<String> results = new ArrayList<String>();
-        
+        return this.jailNames.getByPrefix(prefix);
+    }
+    
+    /**
+     * Gets a list of Jail names that start with the provided prefix and pass the filter.
+     * 
+     * @param prefix The start of the jails to get, empty for all of them
+     * @param filter which the names have to pass, null for all of them
+     * @return List of jails that matched the prefix, at most {@link CompletionIndex#MAX_RESULTS}
+     */
+    public List<String> getJailsByPrefix(String prefix, CompletionIndex.Filter filter) {
+        return this.jailNames.getByPrefix(prefix, filter);
+    }
+    
+    /**
+     * Gets a sorted list of the last known names of the prisoners that start with the provided prefix.
+     * 
+     * @param prefix The start of the names to get, empty for all of them
+     * @param filter which the names have to pass, null for all of them
+     * @return List of prisoner names that matched the prefix, at most {@link CompletionIndex#MAX_RESULTS}
+     */
+    public List<String> getPrisonersByPrefix(String prefix, CompletionIndex.Filter filter) {
+        return this.prisonerNames.getByPrefix(prefix, filter);
+    }
+    
+    /**
+     * Adds the prisoner's name to the index used for tab completing prisoners, when they enter a jail or cell.
+     * 
+     * <p>
+     * 
+     * Every time a name is added it has to be removed again before it leaves the index,
+     * as more than one prisoner can have the same last known name.
+     * 
+     * @param name of the prisoner who entered
+     */
+    public synchronized void addPrisonerName(String name) {
+        if(name == null) return;
+
+        String key = name.toLowerCase();
+        Integer count = this.prisonerNameCounts.get(key);
+        this.prisonerNameCounts.put(key, count == null ? 1 : count + 1);
+        if(count == null) this.prisonerNames.add(name);
+    }
+    
+    /**
+     * Removes the prisoner's name from the index used for tab completing prisoners, when they leave a jail or cell.
+     * 
+     * @param name of the prisoner who left
+     */
+    public synchronized void removePrisonerName(String name) {
+        if(name == null) return;
+
+        String key = name.toLowerCase();
+        Integer count = this.prisonerNameCounts.get(key);
+        if(count == null) return;
+
+        if(count > 1) {
+            this.prisonerNameCounts.put(key, count - 1);
+        }else {
+            this.prisonerNameCounts.remove(key);
+            this.prisonerNames.remove(name);
+        }
+    }
+    
+    /**
+     * Changes the name of a prisoner in the index used for tab completing prisoners, when they log in with a new name.
+     * 
+     * @param oldName the last known name of the prisoner
+     * @param newName the name they have now
+     */
+    public synchronized void renamePrisonerName(String oldName, String newName) {
+        if(oldName != null && oldName.equals(newName)) return;
+
+        this.removePrisonerName(oldName);
+        this.addPrisonerName(newName);
+    }
+    
+    /** Builds the index used for tab completing prisoners again from all the jails, after they have been loaded. */
+    public synchronized void rebuildPrisonerNames() {
+        this.prisonerNameCounts.clear();
+        this.prisonerNames.clear();
+
         for(Jail j : this.jails.values())
-            if(prefix.isEmpty() || StringUtil.startsWithIgnoreCase(j.getName(), prefix))
-                results.add(j.getName());
-        
-        Collections.sort(results);
-        
-        return results;
+            for(Prisoner p : j.getAllPrisoners().values())
+                this.addPrisonerName(p.getLastKnownName());
+    }
+    
+    /**
+     * Gets a sorted list of the names of the online players that start with the provided prefix.
+     * 
+     * @param prefix The start of the names to get, empty for all of them
+     * @param filter which the names have to pass, null for all of them
+     * @return List of player names that matched the prefix, at most {@link CompletionIndex#MAX_RESULTS}
+     */
+    public List<String> getOnlinePlayersByPrefix(String prefix, CompletionIndex.Filter filter) {
+        return this.playerNames.getByPrefix(prefix, filter);
+    }
+    
+    /**
+     * Adds the player to the index used for tab completing online players.
+     * 
+     * @param name of the player who came online
+     */
+    public void addOnlinePlayer(String name) {
+        this.playerNames.add(name);
+    }
+    
+    /**
+     * Removes the player from the index used for tab completing online players.
+     * 
+     * @param name of the player who went offline
+     */
+    public void removeOnlinePlayer(String name) {
+        this.playerNames.remove(name);
     }
 
     /**
@@ -127,7 +241,9 @@ public class JailManager {
      */
     public void addJail(Jail jail, boolean n) {
         this.jails.put(jail.getName().toLowerCase(), jail);
+        this.jailNames.add(jail.getName());
         if(n) plugin.getJailIO().saveJail(jail);
+        if(plugin.getChunkTicketManager() != null) plugin.getChunkTicketManager().refresh();
     }
 
     /**
@@ -136,8 +252,22 @@ public class JailManager {
      * @param name of the jail to remove
      */
     public void removeJail(String name) {
-        plugin.getJailIO().removeJail(this.jails.get(name.toLowerCase()));
+        Jail j = this.jails.get(name.toLowerCase());
+        plugin.getJailIO().removeJail(j);
+
+        //Don't hold on to the signs of its cells which are waiting to be updated
+        if(j != null && plugin.getCellSignUpdater() != null)
+            for(Cell c : j.getCells())
+                plugin.getCellSignUpdater().forget(c);
+
+        //Their names can't be completed any more once the jail is gone
+        if(j != null)
+            for(Prisoner p : j.getAllPrisoners().values())
+                this.removePrisonerName(p.getLastKnownName());
+
         this.jails.remove(name.toLowerCase());
+        this.jailNames.remove(name);
+        if(plugin.getChunkTicketManager() != null) plugin.getChunkTicketManager().refresh();
     }
 
     /**
@@ -397,21 +527,33 @@ public class JailManager {
      * @return The resulting message to be sent to the caller of this method.
      */
     public String clearJailOfPrisoners(String jail) {
+        return clearJailOfPrisoners(jail, null);
+    }
+
+    /**
+     * Clears a {@link Jail} of all its prisoners if the jail is provided, otherwise it releases all the prisoners in all the jails.
+     * 
+     * <p>
+     * 
+     * The prisoners are released over the next few ticks, letting the sender know how far along it is.
+     * 
+     * @param jail The name of the jail to release the prisoners in, null if wanting to clear all.
+     * @param sender who is clearing the jail, can be null.
+     * @return The resulting message to be sent to the caller of this method.
+     */
+    public String clearJailOfPrisoners(String jail, CommandSender sender) {
         //If they don't pass in a jail name, clear all the jails
         if(jail != null) {
             Jail j = getJail(jail);
 
             if(j != null) {
-                for(Prisoner p : j.getAllPrisoners().values()) {
-                    getPlugin().getPrisonerManager().schedulePrisonerRelease(p);
-                }
-
+                getPlugin().getPrisonerManager().schedulePrisonerReleases(new ArrayList<Prisoner>(j.getAllPrisoners().values()), sender, null);
                 return Lang.PRISONERSCLEARED.get(j.getName());
             }else {
                 return Lang.NOJAIL.get(jail);
             }
         }else {
-            return clearAllJailsOfAllPrisoners();
+            return clearAllJailsOfAllPrisoners(sender);
         }
     }
 
@@ -421,16 +563,25 @@ public class JailManager {
      * @return The resulting message to be sent to the caller of this method.
      */
     public String clearAllJailsOfAllPrisoners() {
+        return clearAllJailsOfAllPrisoners(null);
+    }
+
+    /**
+     * Clears all the {@link Jail jails} of prisoners by releasing them over the next few ticks.
+     * 
+     * @param sender who is clearing the jails and is told how far along it is, can be null.
+     * @return The resulting message to be sent to the caller of this method.
+     */
+    public String clearAllJailsOfAllPrisoners(CommandSender sender) {
         //No name of a jail has been passed, so release all of the prisoners in all the jails
         if(getJails().size() == 0) {
             return Lang.NOJAILS.get();
         }else {
-            for(Jail j : getJails()) {
-                for(Prisoner p : j.getAllPrisoners().values()) {
-                    getPlugin().getPrisonerManager().schedulePrisonerRelease(p);
-                }
-            }
+            List<Prisoner> prisoners = new ArrayList<Prisoner>();
+            for(Jail j : getJails())
+                prisoners.addAll(j.getAllPrisoners().values());
 
+            getPlugin().getPrisonerManager().schedulePrisonerReleases(prisoners, sender, null);
             return Lang.PRISONERSCLEARED.get(Lang.ALLJAILS);
         }
     }
@@ -2,45 +2,64 @@ package com.graywolf336.jail;
 
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.PriorityBlockingQueue;
 
 import javax.swing.Timer;
 
 import org.bukkit.entity.Player;
 
+import com.graywolf336.jail.beans.Cell;
 import com.graywolf336.jail.beans.Jail;
 import com.graywolf336.jail.beans.Prisoner;
-import com.graywolf336.jail.enums.Lang;
 import com.graywolf336.jail.enums.Settings;
 import com.graywolf336.jail.events.PrisonerTimeChangeEvent;
+import com.graywolf336.jail.events.PrisonersTimeChangeEvent;
 
 /**
  * Contains all the logic for counting down the time of the prisoners time.
  * 
+ * <p>
+ * 
+ * When the time of offline prisoners counts down, they aren't counted down every time the timer
+ * runs like those who are online. Instead, once we notice they're offline, they get a deadline
+ * of when their time runs out which is put in a queue ordered by the deadlines. Every time the
+ * timer runs only the deadlines which have passed are looked at, and when they join again their
+ * time is worked out from their deadline.
+ * 
+ * <p>
+ * 
+ * The changes of everyone's time are thrown together in one {@link PrisonersTimeChangeEvent},
+ * while the {@link PrisonerTimeChangeEvent} for each of them is only built and thrown when it
+ * is turned on in the config and another plugin listens to it.
+ * 
+ * <p>
+ * 
+ * Kicking prisoners who are afk is done by the {@link AFKManager}.
+ * 
  * @author graywolf336
  * @since 2.x.x
- * @version 3.0.0
+ * @version 3.3.2
  */
 public class JailTimer {
+    /** How often, in milliseconds, the timer runs. */
+    private static final int INTERVAL = 10000;
     private JailMain pl;
     private Timer timer;
     private Long lastTime;
-    private Long afkTime = 0L;
+    private PriorityBlockingQueue<Deadline> deadlines;
 
     protected JailTimer(JailMain plugin) {
         this.pl = plugin;
-        try {
-            afkTime = Util.getTime(pl.getConfig().getString(Settings.MAXAFKTIME.getPath()));
-        } catch (Exception e) {
-            pl.getLogger().severe("Error while processing the max afk time: " + e.getMessage());
-        }
-
+        this.deadlines = new PriorityBlockingQueue<Deadline>();
         this.lastTime = System.currentTimeMillis();
         if(pl.getConfig().getBoolean(Settings.USEBUKKITTIMER.getPath())) {
             pl.getLogger().info("Using the Bukkit Scheduler.");
             pl.getServer().getScheduler().runTaskTimerAsynchronously(pl, new TimeEvent(), 200, 200);
         }else {
             pl.getLogger().info("Using the Java Timer.");
-            timer = new Timer(10000, new ActionListener () {
+            timer = new Timer(INTERVAL, new ActionListener () {
                 public void actionPerformed (ActionEvent event) {
                     pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new TimeEvent());
                 };
@@ -68,69 +87,264 @@ public class JailTimer {
         return this.timer;
     }
 
+    /**
+     * Lets the timer know the time of the prisoner was changed, so it doesn't miss their new deadline if it is sooner.
+     * 
+     * <p>
+     * 
+     * Only needs to be called when their time was lowered while they're offline, if it isn't their
+     * time runs out by the deadline they had before or once they join.
+     * 
+     * @param prisoner whose time was changed
+     */
+    public void reschedule(Prisoner prisoner) {
+        long deadline = prisoner.getOfflineDeadline();
+        if(deadline > 0L && !this.isQueued(prisoner, deadline)) this.deadlines.add(new Deadline(deadline, prisoner));
+    }
+
+    /**
+     * Stops counting down the time of the prisoner by their deadline, as they're online again.
+     * 
+     * @param prisoner who is online again
+     * @param player the player of the prisoner
+     */
+    public void stopOfflineCountdown(Prisoner prisoner, Player player) {
+        if(prisoner.getOfflineDeadline() == 0L) return;
+
+        Jail j = pl.getJailManager().getJailPrisonerIsIn(prisoner);
+        if(j == null) {
+            prisoner.stopOfflineCountdown();
+        }else {
+            TimeChanges changes = new TimeChanges();
+            this.settle(j, prisoner, player, changes);
+            changes.fire();
+        }
+    }
+
+    /** Gets the amount of offline prisoners whose time is counting down by their deadline. */
+    public int getOfflineCountdownCount() {
+        int count = 0;
+        for(Deadline d : this.deadlines)
+            if(d.at == d.prisoner.getOfflineDeadline()) count++;
+
+        return count;
+    }
+
+    /** Counts down the time of the prisoner, or gives them a deadline when they're offline. */
+    private void countDown(Jail j, Cell c, Prisoner p, long timePassed, long previous, boolean countOffline, TimeChanges changes) {
+        //Offline prisoners with a deadline are taken care of by the queue
+        if(p.getOfflineDeadline() > 0L) return;
+
+        //only execute this code if the prisoner's time is more than 0 milliseconds
+        //and they don't have any offline pending things
+        if(p.getRemainingTime() <= 0 || p.isOfflinePending()) return;
+
+        Player player = pl.getServer().getPlayer(p.getUUID());
+
+        //Check if the player is offline
+        if(player == null) {
+            //if they are offline AND the config has counting down the time
+            //while the prisoner is offline, then give them a deadline from
+            //when their time was last counted down while they were online
+            if(countOffline) this.startOfflineCountdown(p, previous);
+            return;
+        }
+
+        //The prisoner isn't offline, so let's count down
+        //Set their remaining time but if it is less than zero, set it to zero
+        long before = p.getRemainingTime();
+        this.changeTime(j, c, p, player, before, Math.max(0, before - timePassed), before, changes);
+    }
+
+    /**
+     * Changes the time of the prisoner, after the listeners of the event for each prisoner have had their say when it is fired.
+     * 
+     * @param cancelled the time they're left with when the event is cancelled
+     */
+    private void changeTime(Jail j, Cell c, Prisoner p, Player player, long before, long after, long cancelled, TimeChanges changes) {
+        if(changes.single) {
+            PrisonerTimeChangeEvent event = new PrisonerTimeChangeEvent(!pl.getServer().isPrimaryThread(), j, c, p, player, before, after);
+            pl.getServer().getPluginManager().callEvent(event);
+
+            if(event.isCancelled()) {
+                p.stopOfflineCountdown();
+                if(cancelled == before) return;
+
+                after = cancelled;
+            }else {
+                after = event.getTimeAfterChange();
+            }
+        }
+
+        //Only once the event went through, so their deadline is kept if anything goes wrong with it
+        p.stopOfflineCountdown();
+        p.setRemainingTime(after);
+        changes.add(p.getUUID(), c, before, after);
+        if(p.getRemainingTime() == 0) pl.getPrisonerManager().schedulePrisonerRelease(p);
+    }
+
+    /** Puts the time they served since their countdown started on them, in one go, and releases them if it ran out. */
+    private synchronized void settle(Jail j, Prisoner p, Player player, TimeChanges changes) {
+        long after = p.getRemainingTime();
+        long before = p.getOfflineCountdownTime();
+        if(before == after) {
+            p.stopOfflineCountdown();
+            return;
+        }
+
+        //When the event is cancelled only the last run of the timer is lost, like when they're counted down every run
+        this.changeTime(j, j.getCellPrisonerIsIn(p.getUUID()), p, player, before, after, Math.min(before, after + INTERVAL), changes);
+    }
+
+    /** Checks whether the deadline of the prisoner is already queued. */
+    private boolean isQueued(Prisoner p, long deadline) {
+        for(Deadline d : this.deadlines)
+            if(d.prisoner == p && d.at == deadline) return true;
+
+        return false;
+    }
+
+    /** Starts counting down the time of the offline prisoner by their deadline. */
+    private void startOfflineCountdown(Prisoner p, long from) {
+        long deadline = p.startOfflineCountdown(from);
+        if(deadline > 0L) this.deadlines.add(new Deadline(deadline, p));
+    }
+
+    /** Settles the prisoners whose deadline has passed, only ever looking at the ones which have. */
+    private synchronized void expireDeadlines(long now, TimeChanges changes) {
+        Deadline d;
+        while((d = this.deadlines.peek()) != null && d.at <= now) {
+            this.deadlines.poll();
+
+            //Their time was changed since this was queued, when it was moved
+            //later it is queued again and when it was stopped it is forgotten
+            long current = d.prisoner.getOfflineDeadline();
+            if(current == 0L) continue;
+            if(current > now) {
+                if(!this.isQueued(d.prisoner, current)) this.deadlines.add(new Deadline(current, d.prisoner));
+                continue;
+            }
+
+            //They could have been released while their time was counting down
+            Jail j = pl.getJailManager().getJailPrisonerIsIn(d.prisoner);
+            if(j == null || j.getPrisoner(d.prisoner.getUUID()) != d.prisoner) {
+                d.prisoner.stopOfflineCountdown();
+                continue;
+            }
+
+            this.settle(j, d.prisoner, null, changes);
+
+            //Something else kept them from being released, so keep counting down
+            if(d.prisoner.getRemainingTime() > 0 && !d.prisoner.isOfflinePending())
+                this.startOfflineCountdown(d.prisoner, now);
+        }
+    }
+
+    /** Settles everyone whose time is counting down offline, for when counting down offline is turned off. */
+    private synchronized void stopAllOfflineCountdowns(TimeChanges changes) {
+        Deadline d;
+        while((d = this.deadlines.poll()) != null) {
+            if(d.at != d.prisoner.getOfflineDeadline()) continue;
+
+            Jail j = pl.getJailManager().getJailPrisonerIsIn(d.prisoner);
+            if(j == null) d.prisoner.stopOfflineCountdown();
+            else this.settle(j, d.prisoner, null, changes);
+        }
+    }
+
     private class TimeEvent implements Runnable {
         public void run() {
-            long timePassed = System.currentTimeMillis() - lastTime;
-            lastTime = System.currentTimeMillis();
+            long now = System.currentTimeMillis();
+            long timePassed = now - lastTime;
+            long previous = lastTime;
+            lastTime = now;
+
+            TimeChanges changes = new TimeChanges();
+            boolean countOffline = pl.getConfig().getBoolean(Settings.COUNTDOWNTIMEOFFLINE.getPath());
+            if(countOffline) expireDeadlines(now, changes);
+            else if(!deadlines.isEmpty()) stopAllOfflineCountdowns(changes);
 
             for(Jail j : pl.getJailManager().getJails()) {
-                for(Prisoner p : j.getAllPrisoners().values()) {
-                    //only execute this code if the prisoner's time is more than 0 milliseconds
-                    //and they don't have any offline pending things
-                    if(p.getRemainingTime() > 0 && !p.isOfflinePending()) {
-                        final Player player = pl.getServer().getPlayer(p.getUUID());
-
-                        //Check if the player is offline
-                        if(player == null) {
-                            //if they are offline AND the config has counting down the time
-                            //while the prisoner is offline, then let's do it
-                            if(pl.getConfig().getBoolean(Settings.COUNTDOWNTIMEOFFLINE.getPath())) {
-                                //Set their remaining time but if it is less than zero, set it to zero
-                            	long before = p.getRemainingTime();
-                            	long after = Math.max(0, p.getRemainingTime() - timePassed);
-                            	
-                            	PrisonerTimeChangeEvent event = new PrisonerTimeChangeEvent(j, j.getCellPrisonerIsIn(p.getUUID()), p, player, before, after);
-                            	pl.getServer().getPluginManager().callEvent(event);
-                            	
-                            	if(!event.isCancelled()) {
-                            		after = event.getTimeAfterChange();
-                            		p.setRemainingTime(after);
-                                    if(p.getRemainingTime() == 0) pl.getPrisonerManager().schedulePrisonerRelease(p);
-                            	}
-                            }
-                        }else {
-                            if(afkTime > 0) {
-                                p.setAFKTime(p.getAFKTime() + timePassed);
-                                if(p.getAFKTime() > afkTime) {
-                                    p.setAFKTime(0);
-                                    //This is so we kick players on the main thread
-                                    //instead of on the async thread(s), as spigot
-                                    //has a protection against this enabled.
-                                    pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
-                                    	public void run() {
-                                    		player.kickPlayer(Lang.AFKKICKMESSAGE.get());
-                                    	}
-                                    });
-                                }
-                            }
-
-                            //The prisoner isn't offline, so let's count down
-                            //Set their remaining time but if it is less than zero, set it to zero
-                            long before = p.getRemainingTime();
-                        	long after = Math.max(0, p.getRemainingTime() - timePassed);
-                        	
-                        	PrisonerTimeChangeEvent event = new PrisonerTimeChangeEvent(j, j.getCellPrisonerIsIn(p.getUUID()), p, player, before, after);
-                        	pl.getServer().getPluginManager().callEvent(event);
-                        	
-                        	if(!event.isCancelled()) {
-                        		after = event.getTimeAfterChange();
-                        		p.setRemainingTime(after);
-                                if(p.getRemainingTime() == 0) pl.getPrisonerManager().schedulePrisonerRelease(p);
-                        	}
-                        }
-                    }
-                }
+                //Going through the cells, instead of looking up the cell of each prisoner
+                for(Cell c : j.getCells())
+                    if(c.hasPrisoner())
+                        countDown(j, c, c.getPrisoner(), timePassed, previous, countOffline, changes);
+
+                for(Prisoner p : j.getPrisonersNotInCells().values())
+                    countDown(j, null, p, timePassed, previous, countOffline, changes);
+            }
+
+            changes.fire();
+        }
+    }
+
+    /**
+     * The changes of the prisoners' time, which are thrown all at once in a {@link PrisonersTimeChangeEvent}.
+     * 
+     * <p>
+     * 
+     * Nothing is kept track of when nobody listens to that event, and the {@link PrisonerTimeChangeEvent}
+     * for each prisoner is only thrown when it is turned on and somebody listens to it.
+     */
+    private class TimeChanges {
+        private boolean single, bulk;
+        private UUID[] uuids;
+        private Cell[] cells;
+        private long[] before, after;
+        private int size;
+
+        private TimeChanges() {
+            this.single = pl.getConfig().getBoolean(Settings.TIMECHANGEEVENTPERPRISONER.getPath(), true)
+                    && PrisonerTimeChangeEvent.getHandlerList().getRegisteredListeners().length != 0;
+            this.bulk = PrisonersTimeChangeEvent.getHandlerList().getRegisteredListeners().length != 0;
+            this.size = 0;
+
+            if(this.bulk) {
+                this.uuids = new UUID[16];
+                this.cells = new Cell[16];
+                this.before = new long[16];
+                this.after = new long[16];
             }
         }
+
+        private void add(UUID uuid, Cell cell, long before, long after) {
+            if(!this.bulk) return;
+
+            if(this.size == this.uuids.length) {
+                int length = this.size * 2;
+                this.uuids = Arrays.copyOf(this.uuids, length);
+                this.cells = Arrays.copyOf(this.cells, length);
+                this.before = Arrays.copyOf(this.before, length);
+                this.after = Arrays.copyOf(this.after, length);
+            }
+
+            this.uuids[this.size] = uuid;
+            this.cells[this.size] = cell;
+            this.before[this.size] = before;
+            this.after[this.size] = after;
+            this.size++;
+        }
+
+        private void fire() {
+            if(this.size == 0) return;
+
+            pl.getServer().getPluginManager().callEvent(new PrisonersTimeChangeEvent(!pl.getServer().isPrimaryThread(),
+                    Arrays.copyOf(this.uuids, this.size), Arrays.copyOf(this.cells, this.size),
+                    Arrays.copyOf(this.before, this.size), Arrays.copyOf(this.after, this.size)));
+        }
+    }
+
+    private static class Deadline implements Comparable<Deadline> {
+        private long at;
+        private Prisoner prisoner;
+
+        private Deadline(long at, Prisoner prisoner) {
+            this.at = at;
+            this.prisoner = prisoner;
+        }
+
+        public int compareTo(Deadline other) {
+            return this.at < other.at ? -1 : (this.at == other.at ? 0 : 1);
+        }
     }
 }
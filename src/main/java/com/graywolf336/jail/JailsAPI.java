@@ -87,6 +87,16 @@ public class JailsAPI {
         return pl.getJailVoteManager();
     }
 
+    /**
+     * The instance of the {@link ViolationManager} which handles the protection penalties and keeps count of the violations.
+     *
+     * @return instance of the {@link ViolationManager}
+     * @see ViolationManager
+     */
+    public static ViolationManager getViolationManager() {
+        return pl.getViolationManager();
+    }
+
     /**
      * Gets the amount of time from the provided time which the Jail plugin uses.
      *
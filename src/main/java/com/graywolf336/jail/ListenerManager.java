@@ -0,0 +1,101 @@
+package com.graywolf336.jail;
+
+import java.util.HashMap;
+
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import com.graywolf336.jail.enums.Settings;
+import com.graywolf336.jail.listeners.AFKListener;
+import com.graywolf336.jail.listeners.BlockBreakProtectionListener;
+import com.graywolf336.jail.listeners.BlockPlaceProtectionListener;
+import com.graywolf336.jail.listeners.ChatRecipientsListener;
+import com.graywolf336.jail.listeners.CommandProtectionListener;
+import com.graywolf336.jail.listeners.CropTramplingProtectionListener;
+import com.graywolf336.jail.listeners.HandCuffListener;
+import com.graywolf336.jail.listeners.MoveProtectionListener;
+
+/**
+ * Manages the listeners which are only needed while a feature is enabled.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * Listeners for features which are turned off in the config are never registered,
+ * that way the server doesn't call into us for events we'd just ignore. The move
+ * event is called a ton of times per single move, so this matters quite a bit.
+ * 
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.1
+ */
+public class ListenerManager {
+    private JailMain pl;
+    private HashMap<Class<? extends Listener>, Listener> listeners;
+
+    protected ListenerManager(JailMain plugin) {
+        this.pl = plugin;
+        this.listeners = new HashMap<Class<? extends Listener>, Listener>();
+    }
+
+    /** Registers or unregisters the feature listeners based upon their previous status and the config. */
+    public void reloadListeners() {
+        toggle(MoveProtectionListener.class, pl.getConfig().getBoolean(Settings.MOVEPROTECTION.getPath()));
+        toggle(BlockBreakProtectionListener.class, pl.getConfig().getBoolean(Settings.BLOCKBREAKPROTECTION.getPath()));
+        toggle(BlockPlaceProtectionListener.class, pl.getConfig().getBoolean(Settings.BLOCKPLACEPROTECTION.getPath()));
+        toggle(CommandProtectionListener.class, pl.getConfig().getBoolean(Settings.COMMANDPROTECTION.getPath()));
+        toggle(CropTramplingProtectionListener.class, pl.getConfig().getBoolean(Settings.CROPTRAMPLINGPROTECTION.getPath()));
+        toggle(ChatRecipientsListener.class, !pl.getConfig().getBoolean(Settings.RECIEVEMESSAGES.getPath()));
+        toggle(AFKListener.class, pl.getAFKManager().isEnabled());
+    }
+
+    /**
+     * Registers the handcuff listener while there is someone handcuffed and unregisters it once there isn't.
+     * 
+     * @param enabled whether anyone is handcuffed
+     */
+    public void setHandCuffListenerEnabled(boolean enabled) {
+        toggle(HandCuffListener.class, enabled);
+    }
+
+    /**
+     * Gets the registered instance of the given listener.
+     * 
+     * @param clazz of the listener to get
+     * @return the listener instance, null if it isn't registered
+     */
+    public <T extends Listener> T getListener(Class<T> clazz) {
+        return clazz.cast(this.listeners.get(clazz));
+    }
+
+    /** Unregisters all of the listeners we have registered. */
+    public void unregisterAll() {
+        for(Listener l : this.listeners.values())
+            HandlerList.unregisterAll(l);
+
+        this.listeners.clear();
+    }
+
+    private void toggle(Class<? extends Listener> clazz, boolean enabled) {
+        Listener current = this.listeners.get(clazz);
+
+        //If it is not enabled and it used to be, unregister it.
+        if(!enabled && current != null) {
+            HandlerList.unregisterAll(current);
+            this.listeners.remove(clazz);
+            pl.debug("The " + clazz.getSimpleName() + " is now disabled.");
+        }
+
+        //If it is enabled and it used to not be, then enable it.
+        if(enabled && current == null) {
+            try {
+                Listener l = clazz.getConstructor(JailMain.class).newInstance(pl);
+                pl.getServer().getPluginManager().registerEvents(l, pl);
+                this.listeners.put(clazz, l);
+                pl.debug("The " + clazz.getSimpleName() + " is now enabled.");
+            } catch (Exception e) {
+                e.printStackTrace();
+                pl.getLogger().severe("Failed to register the " + clazz.getSimpleName() + ", please see the stacktrace above.");
+            }
+        }
+    }
+}
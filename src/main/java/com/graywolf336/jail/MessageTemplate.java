@@ -0,0 +1,107 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.ChatColor;
+
+/**
+ * A message compiled into its literal parts and the numbered variables (<strong>%0%</strong>, <strong>%1%</strong>, etc) between them.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * The color codes are translated when the message is compiled, that way rendering
+ * it is only appending the parts to a builder instead of running a regex for every
+ * variable and translating the colors every time the message is sent.
+ * 
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class MessageTemplate {
+    private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+        protected StringBuilder initialValue() {
+            return new StringBuilder(128);
+        }
+    };
+
+    private String[] literals;
+    private int[] slots;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Compiles the given message, translating the color codes.
+     * 
+     * @param message to compile
+     * @return the compiled template of the message
+     */
+    public static MessageTemplate compile(String message) {
+        String colored = ChatColor.translateAlternateColorCodes('&', message);
+        List<String> literals = new ArrayList<String>();
+        List<Integer> slots = new ArrayList<Integer>();
+
+        int last = 0;
+        int start = colored.indexOf('%');
+        while(start != -1) {
+            int end = start + 1;
+            while(end < colored.length() && Character.isDigit(colored.charAt(end)))
+                end++;
+
+            if(end > start + 1 && end < colored.length() && colored.charAt(end) == '%') {
+                literals.add(colored.substring(last, start));
+                slots.add(Integer.parseInt(colored.substring(start + 1, end)));
+                last = end + 1;
+                start = colored.indexOf('%', last);
+            }else {
+                start = colored.indexOf('%', start + 1);
+            }
+        }
+
+        literals.add(colored.substring(last));
+
+        int[] s = new int[slots.size()];
+        for(int i = 0; i < s.length; i++)
+            s[i] = slots.get(i);
+
+        return new MessageTemplate(literals.toArray(new String[literals.size()]), s);
+    }
+
+    /**
+     * Renders the message with the provided variables put in their place.
+     * 
+     * <p>
+     * 
+     * Variables are put in as they are, so they can contain characters like <strong>$</strong> and <strong>\</strong>.
+     * Color codes in the variables are still translated like they used to be, if there are any.
+     * Any numbered variable which isn't provided is left in the message.
+     * 
+     * @param variables to put in, in order from 0 to however many
+     * @return the rendered message
+     */
+    public String render(String... variables) {
+        if(this.slots.length == 0) return this.literals[0];
+
+        StringBuilder sb = BUILDER.get();
+        sb.setLength(0);
+        sb.append(this.literals[0]);
+
+        for(int i = 0; i < this.slots.length; i++) {
+            int slot = this.slots[i];
+
+            if(slot < variables.length) {
+                String v = variables[slot];
+                sb.append(v != null && v.indexOf('&') != -1 ? ChatColor.translateAlternateColorCodes('&', v) : v);
+            }else {
+                sb.append('%').append(slot).append('%');
+            }
+
+            sb.append(this.literals[i + 1]);
+        }
+
+        return sb.toString();
+    }
+}
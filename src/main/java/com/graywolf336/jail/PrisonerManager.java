@@ -1,13 +1,19 @@
 package com.graywolf336.jail;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.destroystokyo.paper.Namespaced;
 import com.destroystokyo.paper.NamespacedTag;
 import org.bukkit.GameMode;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.command.CommandSender;
 import org.bukkit.enchantments.Enchantment;
@@ -43,6 +49,7 @@ import org.bukkit.inventory.meta.ItemMeta;
  * <ul>
  * 	<li>{@link #prepareJail(Jail, ICell, Player, Prisoner) preparejail}</li>
  * 	<li>{@link #schedulePrisonerRelease(Prisoner) schedulePrisonerRelease}</li>
+ * 	<li>{@link #schedulePrisonerReleases(Collection, CommandSender, String) schedulePrisonerReleases}</li>
  * 	<li>{@link #unJail(Jail, ICell, Player, Prisoner, CommandSender) unJail}</li>
  * 	<li>{@link #forceRelease(Prisoner, CommandSender) forceRelease}</li>
  *  <li>{@link #forceUnJail(Jail, Cell, Player, Prisoner, CommandSender) forceUnJail}</li>
@@ -51,22 +58,31 @@ import org.bukkit.inventory.meta.ItemMeta;
  *
  * @author graywolf336
  * @since 2.x.x
- * @version 3.0.0
+ * @version 3.1.6
  */
 public class PrisonerManager {
+    /** The most scheduled releases which are handed off to be released each tick. */
+    public static final int RELEASES_PER_TICK = 50;
+
     private JailMain pl;
-    private ArrayList<Prisoner> releases;
+    private ConcurrentLinkedQueue<Prisoner> releases;
+    private ConcurrentHashMap<UUID, Long> queued;
+    private AtomicLong released, releaseLatency, maxReleaseLatency;
 
     protected PrisonerManager(JailMain plugin) {
         this.pl = plugin;
-        this.releases = new ArrayList<Prisoner>();
+        this.releases = new ConcurrentLinkedQueue<Prisoner>();
+        this.queued = new ConcurrentHashMap<UUID, Long>();
+        this.released = new AtomicLong();
+        this.releaseLatency = new AtomicLong();
+        this.maxReleaseLatency = new AtomicLong();
 
         // Schedule the releasing of prisoners
         plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new Runnable() {
             public void run() {
                 releaseScheduledPrisoners();
             }
-        }, 100L, 20L);
+        }, 100L, 1L);
     }
 
     /**
@@ -119,12 +135,15 @@ public class PrisonerManager {
         }else if(cell instanceof AnyCell) {
             cell = jail.getFirstEmptyCell();
 
-            if(cell == null)
+            if(cell == null) {
                 jail.addPrisoner(prisoner);
-            else
+            }else {
                 cell.setPrisoner(prisoner);
+                pl.getJailManager().addPrisonerName(prisoner.getLastKnownName());
+            }
         }else {
             cell.setPrisoner(prisoner);
+            pl.getJailManager().addPrisonerName(prisoner.getLastKnownName());
         }
 
         //If they are are offline then throw the event otherwise jail them
@@ -259,140 +278,117 @@ public class PrisonerManager {
             player.setFoodLevel(maxFood);
         }
 
-        //If the cell doesn't equal null, then let's put them in the jail
-        if(cell != null) {
-            //Teleport them to the cell's teleport location
-            //they will now be placed in jail.
-            pl.debug("Teleporting " + player.getName() + " to " + jail.getName() + " in the cell " + cell.getName() + "'s in: " + jail.getTeleportIn().toString());
-            // NEEDS TESTING WITH MULTIPLE WORLDS + INVENTORIES
-            player.teleport(jail.getTeleportIn());
-            player.teleport(cell.getTeleport());
-            
-            //check if we store the inventory
-            if(pl.getConfig().getBoolean(Settings.JAILEDSTOREINVENTORY.getPath(), true)) {
-                final ICell theCell = cell;
-                pl.getServer().getScheduler().runTaskLater(pl, new Runnable() {
-                    public void run() {
-                        List<String> blacklist = pl.getConfig().getStringList(Settings.JAILEDINVENTORYBLACKLIST.getPath());
-                        //Check if there is a chest to store our items to and if it is a double chest, if not we will then serialize it
-                        if(theCell.hasChest()) {
-                            //Get the chest's inventory and then clear it
-                            Inventory chest = theCell.getChest().getInventory();
-                            chest.clear();
-
-                            //Get the separate inventory, so we can iterate of them
-                            ItemStack[] inventory = player.getInventory().getContents();
-
-                            for(ItemStack item : inventory) {
-                                if(item != null) {
-                                    if(!Util.isStringInsideList(item.getType().toString(), blacklist)) {
-                                        int i = chest.firstEmpty();
-                                        if(i != -1) {//Check that we have got a free spot, should never happen but just in case
-                                            chest.setItem(i, item);
-                                        }
-                                    }
-                                }
-                            }
-                            
-                            player.getInventory().clear();
-                            ItemStack woodAxe = new ItemStack(Material.WOODEN_AXE);
-                            ItemMeta enchWoodAxe = woodAxe.getItemMeta();
-                            List<String> loreList = new ArrayList<String>();
-                            loreList.add("Work Work Work");
-                            loreList.add("Uporabi za les in liste");
-
-                            assert enchWoodAxe != null;
-                            enchWoodAxe.setDisplayName("Kramp");
-                            enchWoodAxe.setLore(loreList);
-                            enchWoodAxe.addEnchant(Enchantment.DURABILITY, 1000, true);
-                            enchWoodAxe.addItemFlags(ItemFlag.HIDE_ENCHANTS);
-
-                            List<Namespaced> destroyableBlocks = new ArrayList<>();
-                            destroyableBlocks.add(Material.OAK_LOG.getKey());
-                            destroyableBlocks.add(Material.OAK_LEAVES.getKey());
-                            enchWoodAxe.setDestroyableKeys(destroyableBlocks);
-
-                            woodAxe.setItemMeta(enchWoodAxe);
-
-                            player.getInventory().addItem(woodAxe);
-                            player.updateInventory();
-                        }else {
-                            for(ItemStack item : player.getInventory().getContents())
-                                if(item != null)
-                                    if(Util.isStringInsideList(item.getType().toString(), blacklist))
-                                        player.getInventory().remove(item);
-
-                            for(ItemStack item : player.getInventory().getArmorContents())
-                                if(item != null)
-                                    if(Util.isStringInsideList(item.getType().toString(), blacklist))
-                                        player.getInventory().remove(item);
-
-                            prisoner.setInventory(Util.toBase64(player.getInventory()));
-
-                            player.getInventory().setArmorContents(null);
-                            player.getInventory().clear();
-                        }
-                    };
-                }, 10);
-            }
-        }else {
-            //Teleport them to the jail's teleport in location
-            //They will now be placed in jail.
-            pl.debug("Teleporting " + player.getName() + " to " + jail.getName() + "'s in: " + jail.getTeleportIn().toString());
-            player.teleport(jail.getTeleportIn());
-            
-            //There is no cell we're jailing them to, so stick them in the jail
-            if(pl.getConfig().getBoolean(Settings.JAILEDSTOREINVENTORY.getPath(), true)) {
-                pl.getServer().getScheduler().runTaskLater(pl, new Runnable() {
-                    public void run() {
-                        List<String> blacklist = pl.getConfig().getStringList(Settings.JAILEDINVENTORYBLACKLIST.getPath());
-
-                        for(ItemStack item : player.getInventory().getContents())
-                            if(item != null)
-                                if(Util.isStringInsideList(item.getType().toString(), blacklist))
-                                    player.getInventory().remove(item);
-
-                        for(ItemStack item : player.getInventory().getArmorContents())
-                            if(item != null)
-                                if(Util.isStringInsideList(item.getType().toString(), blacklist))
-                                    player.getInventory().remove(item);
-
-                        prisoner.setInventory(Util.toBase64(player.getInventory()));
-
-                        player.getInventory().setArmorContents(null);
-                        player.getInventory().clear();
-                    };
-                }, 10);
+        //Teleport them straight to where they are going, the cell if they have one otherwise
+        //the jail, they will now be placed in jail. The teleporting flag stays on until they
+        //have arrived, which on Paper is once the chunk there has loaded asynchronously.
+        Location to = cell == null ? jail.getTeleportIn() : cell.getTeleport();
+        pl.debug("Teleporting " + player.getName() + " to " + jail.getName() + (cell == null ? "" : " in the cell " + cell.getName()) + "'s in: " + to.toString());
+
+        final ICell theCell = cell;
+        pl.getTeleporter().teleport(player, to, prisoner, new Teleporter.Callback() {
+            public void teleported(boolean success) {
+                //check if we store the inventory
+                if(pl.getConfig().getBoolean(Settings.JAILEDSTOREINVENTORY.getPath(), true))
+                    storeInventory(jail, player, prisoner, theCell);
             }
-        }
+        });
 
-        //Set them to not allowing teleporting, as we are not going to be moving them anymore
-        //this way the move checkers will start checking this player.
-        prisoner.setTeleporting(false);
-
-        //Get the commands to execute after they are jailed
-        //replace all of the %p% so that the commands can have a player name in them
-        for(String command : pl.getConfig().getStringList(Settings.COMMANDSONJAIL.getPath())) {
-            command = command.replaceAll("%p%", player.getName());
-            command = command.replaceAll("%player%", player.getName());
-            command = command.replaceAll("%uuid%", player.getUniqueId().toString());
-            command = command.replaceAll("%reason%", prisoner.getReason());
-            pl.getServer().dispatchCommand(pl.getServer().getConsoleSender(), command);
-        }
+        //Run the commands to execute after they are jailed, which were compiled when the config loaded
+        pl.getCommandDispatcher().dispatchJailCommands(player, prisoner);
 
         //Add the scoreboard to them if it is enabled
         if(pl.getConfig().getBoolean(Settings.SCOREBOARDENABLED.getPath())) {
             pl.getScoreBoardManager().addScoreBoard(player, prisoner);
         }
 
-        //Save the data, as we have changed it
-        pl.getJailIO().saveJail(jail);
+        //Save the data, as we have changed it, once everyone jailed this tick is done
+        pl.getBatchProcessor().save(jail);
 
         //Call our custom event for when a prisoner is actually jailed.
         PrisonerJailedEvent event = new PrisonerJailedEvent(jail, cell == null ? null : (Cell)cell, prisoner, player);
         pl.getServer().getPluginManager().callEvent(event);
     }
 
+    /**
+     * Stores the inventory of the prisoner a little while after they've arrived at the jail.
+     *
+     * <p>
+     *
+     * If they're in a cell with a chest, their items go in there. Otherwise their inventory
+     * is serialized into their prisoner data.
+     *
+     * @param jail where they were jailed in, saved once their inventory is
+     * @param player who is the prisoner
+     * @param prisoner data containing everything pertaining to them
+     * @param theCell where they were jailed in, can be null
+     */
+    private void storeInventory(final Jail jail, final Player player, final Prisoner prisoner, final ICell theCell) {
+        pl.getServer().getScheduler().runTaskLater(pl, new Runnable() {
+            public void run() {
+                List<String> blacklist = pl.getConfig().getStringList(Settings.JAILEDINVENTORYBLACKLIST.getPath());
+                //Check if there is a chest to store our items to and if it is a double chest, if not we will then serialize it
+                if(theCell != null && theCell.hasChest()) {
+                    //Get the chest's inventory and then clear it
+                    Inventory chest = theCell.getChest().getInventory();
+                    chest.clear();
+
+                    //Get the separate inventory, so we can iterate of them
+                    ItemStack[] inventory = player.getInventory().getContents();
+
+                    for(ItemStack item : inventory) {
+                        if(item != null) {
+                            if(!Util.isStringInsideList(item.getType().toString(), blacklist)) {
+                                int i = chest.firstEmpty();
+                                if(i != -1) {//Check that we have got a free spot, should never happen but just in case
+                                    chest.setItem(i, item);
+                                }
+                            }
+                        }
+                    }
+                    
+                    player.getInventory().clear();
+                    ItemStack woodAxe = new ItemStack(Material.WOODEN_AXE);
+                    ItemMeta enchWoodAxe = woodAxe.getItemMeta();
+                    List<String> loreList = new ArrayList<String>();
+                    loreList.add("Work Work Work");
+                    loreList.add("Uporabi za les in liste");
+
+                    assert enchWoodAxe != null;
+                    enchWoodAxe.setDisplayName("Kramp");
+                    enchWoodAxe.setLore(loreList);
+                    enchWoodAxe.addEnchant(Enchantment.DURABILITY, 1000, true);
+                    enchWoodAxe.addItemFlags(ItemFlag.HIDE_ENCHANTS);
+
+                    List<Namespaced> destroyableBlocks = new ArrayList<>();
+                    destroyableBlocks.add(Material.OAK_LOG.getKey());
+                    destroyableBlocks.add(Material.OAK_LEAVES.getKey());
+                    enchWoodAxe.setDestroyableKeys(destroyableBlocks);
+
+                    woodAxe.setItemMeta(enchWoodAxe);
+
+                    player.getInventory().addItem(woodAxe);
+                    player.updateInventory();
+                }else {
+                    for(ItemStack item : player.getInventory().getContents())
+                        if(item != null)
+                            if(Util.isStringInsideList(item.getType().toString(), blacklist))
+                                player.getInventory().remove(item);
+
+                    for(ItemStack item : player.getInventory().getArmorContents())
+                        if(item != null)
+                            if(Util.isStringInsideList(item.getType().toString(), blacklist))
+                                player.getInventory().remove(item);
+
+                    //Only copy the items here, they're serialized on a worker and the jail is saved after
+                    pl.getInventorySerializer().serialize(prisoner, InventorySerializer.snapshot(player.getInventory()), jail);
+
+                    player.getInventory().setArmorContents(null);
+                    player.getInventory().clear();
+                }
+            };
+        }, 10);
+    }
+
     /**
      * Schedules a prisoner to be released, this method is to be used <strong>async</strong>.
      * 
@@ -403,15 +399,98 @@ public class PrisonerManager {
      * @param prisoner to be released.
      */
     public void schedulePrisonerRelease(Prisoner prisoner) {
-        releases.add(prisoner);
+        //Only queue them once, no matter how many times they're scheduled before being released
+        if(queued.putIfAbsent(prisoner.getUUID(), System.nanoTime()) == null)
+            releases.offer(prisoner);
+    }
+
+    /** Gets the amount of prisoners scheduled to be released who haven't been yet. */
+    public int getScheduledReleaseCount() {
+        return queued.size();
+    }
+
+    /** Gets the average time, in milliseconds, between a prisoner being scheduled to be released and them being released. */
+    public long getAverageReleaseLatency() {
+        long count = released.get();
+        return count == 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(releaseLatency.get() / count);
+    }
+
+    /** Gets the longest time, in milliseconds, between a prisoner being scheduled to be released and them being released. */
+    public long getMaxReleaseLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxReleaseLatency.get());
+    }
+
+    /**
+     * Schedules the prisoners to be released, spread out over the ticks by the {@link BatchProcessor}.
+     *
+     * @param prisoners to be released
+     * @param sender who is releasing them and is told how far along it is, can be null
+     * @param complete the message sent to the sender once they've all been released, can be null
+     */
+    public void schedulePrisonerReleases(Collection<Prisoner> prisoners, CommandSender sender, String complete) {
+        List<Runnable> operations = new ArrayList<Runnable>(prisoners.size());
+        for(final Prisoner p : prisoners) {
+            operations.add(new Runnable() {
+                public void run() {
+                    releaseFromBatch(p);
+                }
+            });
+        }
+
+        pl.getBatchProcessor().submit(sender, operations, complete);
     }
 
     private void releaseScheduledPrisoners() {
-        ArrayList<Prisoner> lettingGo = new ArrayList<Prisoner>(releases);
-        for(Prisoner p : lettingGo) {
-            releases.remove(p);
-            releasePrisoner(pl.getServer().getPlayer(p.getUUID()), p);
+        if(releases.isEmpty()) return;
+
+        List<Runnable> operations = new ArrayList<Runnable>();
+        Prisoner next;
+        while(operations.size() < RELEASES_PER_TICK && (next = releases.poll()) != null) {
+            final Prisoner p = next;
+            operations.add(new Runnable() {
+                public void run() {
+                    Long at = queued.remove(p.getUUID());
+                    if(at != null) recordReleaseLatency(System.nanoTime() - at);
+
+                    releaseFromBatch(p);
+                }
+            });
         }
+
+        pl.getBatchProcessor().submit(null, operations, null);
+    }
+
+    /** Hands all of the scheduled releases to the batch processor, should be called when the plugin is disabled before the batches are finished. */
+    public void finishScheduledReleases() {
+        while(!releases.isEmpty())
+            releaseScheduledPrisoners();
+    }
+
+    private void releaseFromBatch(Prisoner p) {
+        //They could have been released already, while they were waiting
+        if(pl.getJailManager().getJailPrisonerIsIn(p) == null) return;
+
+        //Nothing can be teleported or scheduled while the plugin is being disabled,
+        //so they're released the next time they join, like when released offline
+        if(!pl.isEnabled()) {
+            p.setRemainingTime(0L);
+            p.setOfflinePending(true);
+            return;
+        }
+
+        releasePrisoner(pl.getServer().getPlayer(p.getUUID()), p);
+    }
+
+    private void recordReleaseLatency(long latency) {
+        released.incrementAndGet();
+        releaseLatency.addAndGet(latency);
+
+        long max;
+        do {
+            max = maxReleaseLatency.get();
+        } while(latency > max && !maxReleaseLatency.compareAndSet(max, latency));
+
+        if(pl.inDebug()) pl.debug("Released a scheduled prisoner " + TimeUnit.NANOSECONDS.toMillis(latency) + " millis after they were scheduled, " + getAverageReleaseLatency() + " millis on average.");
     }
 
     /**
@@ -490,6 +569,9 @@ public class PrisonerManager {
         //Now, let's restore their inventory if we can store it but
         //first up is clearing their inventory...if we can store it
         boolean store = pl.getConfig().getBoolean(Settings.JAILEDSTOREINVENTORY.getPath(), true);
+
+        //If their inventory is still being serialized, wait for it so we restore what they had
+        pl.getInventorySerializer().complete(prisoner);
         if(store) {
             player.closeInventory();
             player.getInventory().setArmorContents(null);
@@ -503,23 +585,8 @@ public class PrisonerManager {
                 if(cell.hasChest()) {
                     Inventory chest = cell.getChest().getInventory();
 
-                    for (ItemStack item : chest.getContents()) {
-                        if (item == null || item.getType() == Material.AIR) continue;
-
-                        if(item.getType().toString().toLowerCase().contains("helmet") && (player.getInventory().getHelmet() == null || player.getInventory().getHelmet().getType() == Material.AIR)) {
-                            player.getInventory().setHelmet(item);
-                        } else if(item.getType().toString().toLowerCase().contains("chestplate") && (player.getInventory().getChestplate() == null || player.getInventory().getChestplate().getType() == Material.AIR)) {
-                            player.getInventory().setChestplate(item);
-                        } else if(item.getType().toString().toLowerCase().contains("leg") && (player.getInventory().getLeggings() == null || player.getInventory().getLeggings().getType() == Material.AIR)) {
-                            player.getInventory().setLeggings(item);
-                        } else if(item.getType().toString().toLowerCase().contains("boots") && (player.getInventory().getBoots() == null || player.getInventory().getBoots().getType() == Material.AIR)) {
-                            player.getInventory().setBoots(item);
-                        } else if (player.getInventory().firstEmpty() == -1) {
-                            player.getWorld().dropItem(player.getLocation(), item);
-                        } else {
-                            player.getInventory().addItem(item);
-                        }
-                    }
+                    //Put on any armor in the empty slots, then give them the rest in one go
+                    Util.equipAndGiveItems(player, chest.getContents(), false);
 
                     chest.clear();
                 }else {
@@ -533,6 +600,7 @@ public class PrisonerManager {
 
             pl.getJailIO().removePrisoner(jail, (Cell)cell, prisoner);
             cell.removePrisoner();
+            pl.getJailManager().removePrisonerName(prisoner.getLastKnownName());
         }else {
             if(store) Util.restoreInventory(player, prisoner);
 
@@ -544,20 +612,26 @@ public class PrisonerManager {
         //let's enable their sleeping state taking place again
         player.setSleepingIgnored(false);
         
+        //Start loading where they're going, so it is ready by the time we teleport them
+        final boolean toPrevious = pl.getConfig().getBoolean(Settings.RELEASETOPREVIOUSPOSITION.getPath(), false) && prisoner.getPreviousLocation() != null;
+        final boolean toFree = pl.getConfig().getBoolean(Settings.TELEPORTONRELEASE.getPath(), true);
+        if(toPrevious) pl.getTeleporter().preload(prisoner.getPreviousLocation());
+        else if(toFree) pl.getTeleporter().preload(jail.getTeleportFree());
+
         pl.getServer().getScheduler().runTaskLater(pl, new Runnable() {
             public void run() {
                 //If the config has us teleporting them back to their
-                //previous position then let's do that
-                boolean tpd = false;
-                if(pl.getConfig().getBoolean(Settings.RELEASETOPREVIOUSPOSITION.getPath(), false)) {
-                    if(prisoner.getPreviousLocation() != null)
-                        tpd = player.teleport(prisoner.getPreviousLocation());
-                }
-
-                //If they haven't already been teleported and the config has us to teleport on release,
-                //then we teleport players to the jail's free spot
-                if(!tpd && pl.getConfig().getBoolean(Settings.TELEPORTONRELEASE.getPath(), true)) {
-                    player.teleport(jail.getTeleportFree());
+                //previous position then let's do that, if that fails and the config
+                //has us to teleport on release then we teleport them to the jail's free spot
+                if(toPrevious) {
+                    pl.getTeleporter().teleport(player, prisoner.getPreviousLocation(), null, new Teleporter.Callback() {
+                        public void teleported(boolean success) {
+                            if(!success && toFree)
+                                pl.getTeleporter().teleport(player, jail.getTeleportFree(), null, null);
+                        }
+                    });
+                }else if(toFree) {
+                    pl.getTeleporter().teleport(player, jail.getTeleportFree(), null, null);
                 }
 
                 //If we are to restore their previous gamemode and we have it stored,
@@ -570,15 +644,8 @@ public class PrisonerManager {
             };
         }, 5);
 
-        //Get the commands to execute prisoners are unjailed
-        //replace all of the %p% so that the commands can have a player name in them
-        for(String command : pl.getConfig().getStringList(Settings.COMMANDSONRELEASE.getPath())) {
-            command = command.replaceAll("%p%", player.getName());
-            command = command.replaceAll("%player%", player.getName());
-            command = command.replaceAll("%uuid%", player.getUniqueId().toString());
-            command = command.replaceAll("%reason%", prisoner.getReason());
-            pl.getServer().dispatchCommand(pl.getServer().getConsoleSender(), command);
-        }
+        //Run the commands to execute when prisoners are unjailed, which were compiled when the config loaded
+        pl.getCommandDispatcher().dispatchReleaseCommands(player, prisoner);
 
         //Remove the scoreboard to them if it is enabled
         if(pl.getConfig().getBoolean(Settings.SCOREBOARDENABLED.getPath())) {
@@ -661,6 +728,7 @@ public class PrisonerManager {
                 jail.removePrisoner(prisoner);
             }else {
                 cell.removePrisoner();
+                pl.getJailManager().removePrisonerName(prisoner.getLastKnownName());
             }
 
             //Call the prisoner released event as we have released them.
@@ -707,14 +775,13 @@ public class PrisonerManager {
                     //Now let's set them to be transferred when they come online next
                     prisoner.setToBeTransferred(true);
                 }else {
-                    prisoner.setTeleporting(true);
-                    player.teleport(targetJail.getTeleportIn());
-                    prisoner.setTeleporting(false);
+                    pl.getTeleporter().teleport(player, targetJail.getTeleportIn(), prisoner, null);
                     player.sendMessage(Lang.TRANSFERRED.get(targetJail.getName()));
                 }
             }else {
                 //They are set to go to the targetCell, so handle accordingly
                 targetCell.setPrisoner(prisoner);
+                pl.getJailManager().addPrisonerName(prisoner.getLastKnownName());
 
                 //If the player is not online, trigger them to be teleported when they
                 //come online again
@@ -724,9 +791,7 @@ public class PrisonerManager {
                     //Now let's set them to be transferred when they come online next
                     prisoner.setToBeTransferred(true);
                 }else {
-                    prisoner.setTeleporting(true);
-                    player.teleport(targetCell.getTeleport());
-                    prisoner.setTeleporting(false);
+                    pl.getTeleporter().teleport(player, targetCell.getTeleport(), prisoner, null);
                     player.sendMessage(Lang.TRANSFERRED.get(targetJail.getName()));
                 }
             }
@@ -740,12 +805,13 @@ public class PrisonerManager {
                 targetJail.addPrisoner(prisoner);
                 //Next, remove them from the cell
                 originCell.removePrisoner();
+                pl.getJailManager().removePrisonerName(prisoner.getLastKnownName());
 
                 //If the cell they came from has any items from their inventory,
                 //let's get it all and store it
                 if(originCell.hasChest()) {
-                    //Convert the inventory to base64 string and store it in the prisoner's file
-                    prisoner.setInventory(Util.toBase64(originCell.getChest().getInventory()));
+                    //Convert the inventory to base64 string, on a worker, and store it in the prisoner's file
+                    pl.getInventorySerializer().serialize(prisoner, InventorySerializer.snapshot(originCell.getChest().getInventory()), targetJail);
                     //Clear the origin cell's inventory so nothing is left behind
                     originCell.getChest().getInventory().clear();
                 }
@@ -756,8 +822,10 @@ public class PrisonerManager {
 
                 //Set the cell's prisoner to this one
                 targetCell.setPrisoner(prisoner);
+                pl.getJailManager().addPrisonerName(prisoner.getLastKnownName());
                 //Remove the prisoner from the old one
                 originCell.removePrisoner();
+                pl.getJailManager().removePrisonerName(prisoner.getLastKnownName());
 
                 //Check if the origin cell has a chest, put all the player's inventory into it
                 if(originCell.hasChest()) {
@@ -773,8 +841,8 @@ public class PrisonerManager {
                     }else {
                         //targetCell has no chest so we aren't going to try and put anything into it
 
-                        //Convert the inventory to base64 string and store it in the prisoner's file
-                        prisoner.setInventory(Util.toBase64(originCell.getChest().getInventory()));
+                        //Convert the inventory to base64 string, on a worker, and store it in the prisoner's file
+                        pl.getInventorySerializer().serialize(prisoner, InventorySerializer.snapshot(originCell.getChest().getInventory()), targetJail);
                         //Clear the origin cell's inventory so nothing is left behind
                         originCell.getChest().getInventory().clear();
                     }
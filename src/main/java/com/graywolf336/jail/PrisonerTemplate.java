@@ -0,0 +1,202 @@
+package com.graywolf336.jail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.ChatColor;
+
+import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.enums.Lang;
+
+/**
+ * A string compiled into its literal parts and the prisoner variables between them,
+ * such as <strong>%player%</strong> and <strong>%prettytime%</strong>.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * Only the variables which are in the string are looked up when it is rendered, so a
+ * sign line without any times in it never works out the duration breakdown. The color
+ * codes of the literal parts are translated when it is compiled, and the strings which are
+ * rendered over and over are only compiled once, see {@link #of(String)}.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * Only the scoreboard knows where the prisoner is jailed, so <strong>%jail%</strong> and
+ * <strong>%cell%</strong> are left as they are everywhere else, like signs and messages.
+ * 
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.2
+ */
+public class PrisonerTemplate {
+    private static final int MAX_CACHED = 256;
+    private static final ConcurrentHashMap<String, PrisonerTemplate> cache = new ConcurrentHashMap<String, PrisonerTemplate>();
+    private static final ThreadLocal<StringBuilder> BUILDER = new ThreadLocal<StringBuilder>() {
+        protected StringBuilder initialValue() {
+            return new StringBuilder(64);
+        }
+    };
+
+    /** The variables which can be used in a prisoner template. */
+    public enum Variable {
+        PLAYER, UUID, REASON, JAILER, AFKTIME, TIMEINMINUTES, PRETTYTIME, JAIL, CELL;
+
+        private static final Variable[] VALUES = values();
+        private String token = "%" + toString().toLowerCase(Locale.ROOT) + "%";
+
+        /** Returns the bit of this variable, for checking against {@link PrisonerTemplate#getVariableMask()}. */
+        public int getMask() {
+            return 1 << ordinal();
+        }
+
+        private String getValue(Prisoner p, String jail, String cell) {
+            switch(this) {
+                case PLAYER:
+                    return p.getLastKnownName();
+                case UUID:
+                    return p.getUUID().toString();
+                case REASON:
+                    return p.getReason();
+                case JAILER:
+                    return p.getJailer();
+                case AFKTIME:
+                    return Util.getDurationBreakdown(p.getAFKTime());
+                case TIMEINMINUTES:
+                    return p.getRemainingTime() >= 0 ? String.valueOf(p.getRemainingTimeInMinutes()) : String.valueOf(-1);
+                case PRETTYTIME:
+                    return p.getRemainingTime() >= 0 ? Util.getDurationBreakdown(p.getRemainingTime()) : Lang.JAILEDFOREVERSIGN.get();
+                case JAIL:
+                    return jail;
+                case CELL:
+                    return cell;
+                default:
+                    return "";
+            }
+        }
+    }
+
+    private String[] literals;
+    private Variable[] variables;
+    private int mask;
+
+    private PrisonerTemplate(String[] literals, Variable[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+
+        for(Variable v : variables)
+            this.mask |= v.getMask();
+    }
+
+    /**
+     * Gets the bits of all the variables used in this template, so it is
+     * easy to tell whether it has to be rendered again when something changes.
+     * 
+     * @return the bits of the variables used, see {@link Variable#getMask()}
+     */
+    public int getVariableMask() {
+        return this.mask;
+    }
+
+    /**
+     * Compiles the given string, translating the color codes.
+     * 
+     * @param msg to compile
+     * @return the compiled template of the string
+     */
+    public static PrisonerTemplate compile(String msg) {
+        List<String> literals = new ArrayList<String>();
+        List<Variable> variables = new ArrayList<Variable>();
+
+        int last = 0;
+        int start = msg.indexOf('%');
+        while(start != -1) {
+            Variable found = null;
+            for(Variable v : Variable.VALUES) {
+                if(msg.startsWith(v.token, start)) {
+                    found = v;
+                    break;
+                }
+            }
+
+            if(found == null) {
+                start = msg.indexOf('%', start + 1);
+            }else {
+                literals.add(ChatColor.translateAlternateColorCodes('&', msg.substring(last, start)));
+                variables.add(found);
+                last = start + found.token.length();
+                start = msg.indexOf('%', last);
+            }
+        }
+
+        literals.add(ChatColor.translateAlternateColorCodes('&', msg.substring(last)));
+
+        return new PrisonerTemplate(literals.toArray(new String[literals.size()]), variables.toArray(new Variable[variables.size()]));
+    }
+
+    /**
+     * Gets the compiled template of the given string, only compiling it the first time.
+     * 
+     * @param msg to get the template of
+     * @return the compiled template of the string
+     */
+    public static PrisonerTemplate of(String msg) {
+        PrisonerTemplate t = cache.get(msg);
+        if(t == null) {
+            //Start over when something keeps rendering different strings, instead of holding on to them all
+            if(cache.size() >= MAX_CACHED) cache.clear();
+
+            t = compile(msg);
+            cache.put(msg, t);
+        }
+
+        return t;
+    }
+
+    /**
+     * Renders this template with the values of the given prisoner, leaving <strong>%jail%</strong> and <strong>%cell%</strong> as they are.
+     * 
+     * @param p the {@link Prisoner} data
+     * @return the string with the variables replaced and colorized
+     */
+    public String render(Prisoner p) {
+        return this.render(p, null, null);
+    }
+
+    /**
+     * Renders this template with the values of the given prisoner and the names of where they're jailed.
+     * 
+     * @param p the {@link Prisoner} data
+     * @param jail the name of the jail they're in, null to leave the variable as it is
+     * @param cell the name of the cell they're in, empty if they're not in one or null to leave the variable as it is
+     * @return the string with the variables replaced and colorized
+     */
+    public String render(Prisoner p, String jail, String cell) {
+        if(this.variables.length == 0) return this.literals[0];
+
+        StringBuilder sb = BUILDER.get();
+        sb.setLength(0);
+        sb.append(this.literals[0]);
+
+        for(int i = 0; i < this.variables.length; i++) {
+            Variable var = this.variables[i];
+
+            //The durations are written straight into the builder, instead of building a string for them first
+            if(var == Variable.AFKTIME) {
+                Util.appendDurationBreakdown(sb, p.getAFKTime());
+            }else if(var == Variable.PRETTYTIME) {
+                Util.appendDurationBreakdown(sb, p.getRemainingTime());
+            }else if((var == Variable.JAIL && jail == null) || (var == Variable.CELL && cell == null)) {
+                sb.append(var.token);
+            }else {
+                String v = var.getValue(p, jail, cell);
+                sb.append(v != null && v.indexOf('&') != -1 ? ChatColor.translateAlternateColorCodes('&', v) : v);
+            }
+
+            sb.append(this.literals[i + 1]);
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.graywolf336.jail;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.enums.Lang;
+
+/**
+ * Looks up the jailing records of players away from the main thread.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Finding out the uuid of a player who has never been on the server can mean asking Mojang,
+ * and the records can be in a database, so neither is done on the main thread. When we
+ * already know the player, as a prisoner or because they're online, their uuid is taken
+ * from there and only the records are looked up. The results are sent on the main thread.
+ *
+ * <p>&nbsp;</p>
+ *
+ * Only {@link #MAX_RUNNING} lookups run at once with {@link #MAX_QUEUED} waiting behind them,
+ * and each sender can only have one going, so slow lookups can't stack up.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class RecordLookupManager {
+    /** The amount of lookups which run at the same time. */
+    public static final int MAX_RUNNING = 1;
+    /** The amount of lookups which can wait for one of the running ones to finish. */
+    public static final int MAX_QUEUED = 4;
+
+    private JailMain pl;
+    private ThreadPoolExecutor executor;
+    private HashSet<String> pending;
+
+    protected RecordLookupManager(JailMain plugin) {
+        this.pl = plugin;
+        this.pending = new HashSet<String>();
+        this.executor = new ThreadPoolExecutor(MAX_RUNNING, MAX_RUNNING, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(MAX_QUEUED), new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Jail Record Lookup");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Looks up the records of the given player and sends them to the sender once they're found.
+     *
+     * @param sender who wants the records, must be called on the main thread
+     * @param username of the player to look up
+     * @param display whether to send every entry, or only how many times they've been jailed
+     * @return true if the lookup was started, false if the sender already has one going or too many are
+     */
+    public boolean lookup(final CommandSender sender, final String username, final boolean display) {
+        final String key = sender.getName().toLowerCase();
+
+        synchronized(this.pending) {
+            if(this.pending.contains(key)) {
+                sender.sendMessage(Lang.RECORDLOOKUPPENDING.get());
+                return false;
+            }
+
+            this.pending.add(key);
+        }
+
+        final UUID known = this.getKnownUUID(username);
+
+        try {
+            this.executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        UUID uuid = known;
+
+                        if(uuid == null) {
+                            pl.debug("Looking up the uuid of " + username + " for their records.");
+                            uuid = getOfflineUUID(username);
+                        }
+
+                        final List<String> entries = pl.getJailIO().getRecordEntries(uuid);
+
+                        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+                            public void run() {
+                                if(display)
+                                    for(String s : entries)
+                                        sender.sendMessage(s);
+
+                                sender.sendMessage(Lang.RECORDTIMESJAILED.get(new String[] { username, String.valueOf(entries.size()) }));
+                            }
+                        });
+                    }finally {
+                        synchronized(pending) {
+                            pending.remove(key);
+                        }
+                    }
+                }
+            });
+        }catch(RejectedExecutionException e) {
+            synchronized(this.pending) {
+                this.pending.remove(key);
+            }
+
+            sender.sendMessage(Lang.RECORDLOOKUPSBUSY.get());
+            return false;
+        }
+
+        return true;
+    }
+
+    /** Gets the amount of lookups which are running or waiting to run. */
+    public int getPendingCount() {
+        synchronized(this.pending) {
+            return this.pending.size();
+        }
+    }
+
+    /** Stops taking lookups, any which are waiting to run are dropped. */
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /** Gets the uuid of the player if we already know them, without asking the server to look them up. */
+    private UUID getKnownUUID(String username) {
+        Prisoner p = pl.getJailManager().getPrisonerByLastKnownName(username);
+        if(p != null) return p.getUUID();
+
+        Player player = pl.getServer().getPlayerExact(username);
+        return player == null ? null : player.getUniqueId();
+    }
+
+    @SuppressWarnings("deprecation")
+    private UUID getOfflineUUID(String username) {
+        return pl.getServer().getOfflinePlayer(username).getUniqueId();
+    }
+}
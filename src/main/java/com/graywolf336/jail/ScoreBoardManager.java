@@ -1,107 +1,277 @@
 package com.graywolf336.jail;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.UUID;
 
-import org.bukkit.OfflinePlayer;
+import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
 
-import com.graywolf336.jail.beans.Jail;
+import com.graywolf336.jail.PrisonerTemplate.Variable;
+import com.graywolf336.jail.beans.CachePrisoner;
+import com.graywolf336.jail.beans.Cell;
 import com.graywolf336.jail.beans.Prisoner;
 import com.graywolf336.jail.enums.Settings;
 
 public class ScoreBoardManager {
+    /** The amount of ticks it takes for every prisoner's board to be updated once. */
+    private static final int UPDATE_INTERVAL = 100;
+    /** The most lines a sidebar can show. */
+    private static final int MAX_LINES = 15;
+    /** The longest an entry can be, minus the two characters we use to keep every line unique. */
+    private static final int MAX_LINE_LENGTH = 38;
+    /** The most scoreboards we keep around to reuse. */
+    private static final int MAX_POOLED = 50;
+
     private JailMain pl;
     private ScoreboardManager man;
-    private HashMap<UUID, Scoreboard> boards;
-    private OfflinePlayer time;
+    private HashMap<UUID, PrisonerBoard> boards;
+    private ArrayList<PrisonerBoard> order;
+    private ArrayDeque<Scoreboard> pool;
+    private PrisonerTemplate[] lines;
+    private int lineMask = 0;
+    private String title, time;
+    private int cursor = 0;
+    private int task = -1;
 
-    @SuppressWarnings("deprecation")
     protected ScoreBoardManager(JailMain plugin) {
         this.pl = plugin;
         this.man = plugin.getServer().getScoreboardManager();
-        this.boards = new HashMap<UUID, Scoreboard>();
-        this.time = plugin.getServer().getOfflinePlayer(Util.getColorfulMessage(pl.getConfig().getString(Settings.SCOREBOARDTIME.getPath())));
+        this.boards = new HashMap<UUID, PrisonerBoard>();
+        this.order = new ArrayList<PrisonerBoard>();
+        this.pool = new ArrayDeque<Scoreboard>();
+        this.title = Util.getColorfulMessage(pl.getConfig().getString(Settings.SCOREBOARDTITLE.getPath()));
+        this.time = Util.getColorfulMessage(pl.getConfig().getString(Settings.SCOREBOARDTIME.getPath()));
+
+        //Compile the lines once, when there aren't any we only show the time like we always have
+        List<String> configured = pl.getConfig().getStringList(Settings.SCOREBOARDLINES.getPath());
+        if(configured.size() > MAX_LINES) {
+            pl.getLogger().warning("The scoreboard can only show " + MAX_LINES + " lines, the rest will be ignored.");
+            configured = configured.subList(0, MAX_LINES);
+        }
 
-        //Start the task if it is enabled
+        this.lines = Util.compileAll(configured.toArray(new String[configured.size()]));
+        for(PrisonerTemplate t : this.lines)
+            this.lineMask |= t.getVariableMask();
+
+        //Start the task if it is enabled, it runs every tick but only updates
+        //a slice of the boards each time so they don't all land in the same tick
         if(plugin.getConfig().getBoolean(Settings.SCOREBOARDENABLED.getPath())) {
-            plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new Runnable() {
+            this.task = plugin.getServer().getScheduler().scheduleSyncRepeatingTask(plugin, new Runnable() {
                 public void run() {
                     updatePrisonersTime();
                 }
-            }, 200L, 100L);
+            }, 200L, 1L);
         }
     }
 
     /**
      * Adds the jailing score board to the player if they don't have one, otherwise it just updates it.
-     * 
+     *
      * @param player of whom to add the scoreboard to.
      * @param pris data for the provided prisoner
      */
-    @SuppressWarnings("deprecation")
     public void addScoreBoard(Player player, Prisoner pris) {
-        if(!boards.containsKey(player.getUniqueId())) {
-            boards.put(player.getUniqueId(), man.getNewScoreboard());
-            Objective o = boards.get(player.getUniqueId()).registerNewObjective("test", "dummy");
-            o.setDisplaySlot(DisplaySlot.SIDEBAR);
-            o.setDisplayName(Util.getColorfulMessage(pl.getConfig().getString(Settings.SCOREBOARDTITLE.getPath())));
-            o.getScore(time).setScore(pris.getRemainingTimeInMinutesInt());
-            player.setScoreboard(boards.get(player.getUniqueId()));
+        PrisonerBoard b = boards.get(player.getUniqueId());
+
+        if(b == null) {
+            b = new PrisonerBoard(player.getUniqueId(), this.getBoard(), pris);
+            boards.put(player.getUniqueId(), b);
+            order.add(b);
+
+            b.update(true);
+            player.setScoreboard(b.board);
         }else {
-            updatePrisonersBoard(player, pris);
+            b.prisoner = pris;
+            b.update(true);
         }
     }
 
     /**
      * Removes a player's jail scoreboard for their jail time and sets it to the main one.
-     * 
+     *
      * @param player of whom to remove the scoreboard for.
      */
     public void removeScoreBoard(Player player) {
-        boards.remove(player.getUniqueId());
         //TODO: See if this works or if we need to set it to a new one
         player.setScoreboard(man.getMainScoreboard());
+
+        PrisonerBoard b = boards.remove(player.getUniqueId());
+        if(b != null) {
+            order.remove(b);
+            this.returnBoard(b);
+        }
     }
 
-    /** Removes all of the scoreboards from the prisoners. */
+    /** Removes all of the scoreboards from the prisoners and stops updating them. */
     public void removeAllScoreboards() {
-        HashMap<UUID, Scoreboard> temp = new HashMap<UUID, Scoreboard>(boards);
+        if(this.task != -1) {
+            pl.getServer().getScheduler().cancelTask(this.task);
+            this.task = -1;
+        }
 
-        for(UUID id : temp.keySet()) {
+        for(UUID id : boards.keySet()) {
             Player p = pl.getServer().getPlayer(id);
 
             if(p != null) {
                 p.setScoreboard(man.getMainScoreboard());
             }
-
-            boards.remove(id);
         }
+
+        boards.clear();
+        order.clear();
+        pool.clear();
     }
 
-    /** Updates the prisoners time on their scoreboard. */
+    /** Updates the next slice of the prisoners' time on their scoreboard. */
     private void updatePrisonersTime() {
-        for(Jail j : pl.getJailManager().getJails()) {
-            for(Prisoner p : j.getAllPrisoners().values()) {
-                if(pl.getServer().getPlayer(p.getUUID()) != null) {
-                    addScoreBoard(pl.getServer().getPlayer(p.getUUID()), p);
-                }
-            }
+        if(order.isEmpty()) return;
+
+        //Enough boards each tick that every one of them is updated once per interval
+        int count = (order.size() + UPDATE_INTERVAL - 1) / UPDATE_INTERVAL;
+
+        for(int i = 0; i < count; i++) {
+            if(cursor >= order.size()) cursor = 0;
+            order.get(cursor++).update(false);
         }
     }
 
-    /**
-     * Updates a player's time in the scoreboard.
-     * 
-     * @param player of whom to update the scoreboard for.
-     * @param pris data for the player
-     */
+    /** Gets a scoreboard from the pool, or a new one with the objective set up if there aren't any. */
     @SuppressWarnings("deprecation")
-    private void updatePrisonersBoard(Player player, Prisoner pris) {
-        boards.get(player.getUniqueId()).getObjective("test").getScore(time).setScore(pris.getRemainingTimeInMinutesInt());
+    private Scoreboard getBoard() {
+        Scoreboard board = pool.poll();
+
+        if(board == null) {
+            board = man.getNewScoreboard();
+            Objective o = board.registerNewObjective("test", "dummy");
+            o.setDisplaySlot(DisplaySlot.SIDEBAR);
+            o.setDisplayName(this.title);
+        }
+
+        return board;
+    }
+
+    /** Clears out the lines of the given board and puts its scoreboard back into the pool, if there is room. */
+    private void returnBoard(PrisonerBoard b) {
+        for(String entry : b.board.getEntries())
+            b.board.resetScores(entry);
+
+        if(pool.size() < MAX_POOLED) pool.push(b.board);
+    }
+
+    /** Makes the entry of the line unique, as two lines with the same text would be the same score otherwise. */
+    private static String toEntry(String text, int line) {
+        if(text.length() > MAX_LINE_LENGTH) {
+            text = text.substring(0, MAX_LINE_LENGTH);
+            if(text.charAt(text.length() - 1) == ChatColor.COLOR_CHAR) text = text.substring(0, text.length() - 1);
+        }
+
+        return text + ChatColor.values()[line];
+    }
+
+    private static boolean differs(String a, String b) {
+        return a == null ? b != null : !a.equals(b);
+    }
+
+    /** The scoreboard of a prisoner, with what was last sent to them so we only render and send what changed. */
+    private class PrisonerBoard {
+        private UUID uuid;
+        private Scoreboard board;
+        private Objective objective;
+        private Prisoner prisoner;
+        private String[] entries;
+        private long lastTime = Long.MIN_VALUE, lastAfk = Long.MIN_VALUE;
+        private String lastName, lastReason, lastJailer, lastJail = "", lastCell = "";
+        private int lastMinutes = Integer.MIN_VALUE;
+
+        private PrisonerBoard(UUID uuid, Scoreboard board, Prisoner prisoner) {
+            this.uuid = uuid;
+            this.board = board;
+            this.objective = board.getObjective("test");
+            this.prisoner = prisoner;
+            this.entries = new String[lines.length];
+        }
+
+        /**
+         * Updates the lines of the board whose inputs have changed since the last update.
+         *
+         * @param force whether to check every input, even the ones which hardly ever change
+         */
+        private void update(boolean force) {
+            if(lines.length == 0) {
+                int minutes = prisoner.getRemainingTimeInMinutesInt();
+
+                if(minutes != lastMinutes) {
+                    objective.getScore(time).setScore(minutes);
+                    lastMinutes = minutes;
+                }
+
+                return;
+            }
+
+            int changed = 0;
+
+            //The times are compared at the precision they're shown at, so a
+            //change of a few milliseconds doesn't render the line again
+            int minutes = prisoner.getRemainingTimeInMinutesInt();
+            if(minutes != lastMinutes) {
+                lastMinutes = minutes;
+                changed |= Variable.TIMEINMINUTES.getMask();
+            }
+
+            long seconds = prisoner.getRemainingTime() < 0 ? -1L : prisoner.getRemainingTime() / 1000L;
+            if(seconds != lastTime) {
+                lastTime = seconds;
+                changed |= Variable.PRETTYTIME.getMask();
+            }
+
+            long afk = prisoner.getAFKTime() / 1000L;
+            if(afk != lastAfk) {
+                lastAfk = afk;
+                changed |= Variable.AFKTIME.getMask();
+            }
+
+            if(force || differs(prisoner.getLastKnownName(), lastName) || differs(prisoner.getReason(), lastReason) || differs(prisoner.getJailer(), lastJailer)) {
+                lastName = prisoner.getLastKnownName();
+                lastReason = prisoner.getReason();
+                lastJailer = prisoner.getJailer();
+                changed |= Variable.PLAYER.getMask() | Variable.UUID.getMask() | Variable.REASON.getMask() | Variable.JAILER.getMask();
+            }
+
+            //Only look up where they're at if a line shows it
+            if((lineMask & (Variable.JAIL.getMask() | Variable.CELL.getMask())) != 0) {
+                CachePrisoner cp = pl.getJailManager().getCacheObject(uuid);
+                String jail = cp == null ? "" : cp.getJail().getName();
+                String cell = "";
+
+                if(cp != null && (lineMask & Variable.CELL.getMask()) != 0) {
+                    Cell c = cp.getJail().getCellPrisonerIsIn(uuid);
+                    if(c != null) cell = c.getName();
+                }
+
+                if(!jail.equals(lastJail) || !cell.equals(lastCell)) {
+                    lastJail = jail;
+                    lastCell = cell;
+                    changed |= Variable.JAIL.getMask() | Variable.CELL.getMask();
+                }
+            }
+
+            for(int i = 0; i < lines.length; i++) {
+                if(entries[i] != null && (lines[i].getVariableMask() & changed) == 0) continue;
+
+                String entry = toEntry(lines[i].render(prisoner, lastJail, lastCell), i);
+                if(entry.equals(entries[i])) continue;
+
+                if(entries[i] != null) board.resetScores(entries[i]);
+                objective.getScore(entry).setScore(lines.length - i);
+                entries[i] = entry;
+            }
+        }
     }
 }
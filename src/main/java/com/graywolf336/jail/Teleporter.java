@@ -0,0 +1,112 @@
+package com.graywolf336.jail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import com.graywolf336.jail.beans.Prisoner;
+
+/**
+ * Teleports players around the jails without loading the chunks they're going to on the main thread.
+ *
+ * <p>&nbsp;</p>
+ *
+ * On Paper the chunks are loaded asynchronously before the player is moved, on any other
+ * server we fall back to the normal teleport which loads them right away. While a prisoner
+ * is being teleported they are flagged as {@link Prisoner#setTeleporting(boolean) teleporting}
+ * until they've actually arrived, so the move protection leaves them alone in the meantime.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class Teleporter {
+    private JailMain pl;
+    private boolean async;
+
+    protected Teleporter(JailMain plugin) {
+        this.pl = plugin;
+
+        try {
+            Entity.class.getMethod("teleportAsync", Location.class);
+            this.async = true;
+        }catch(NoSuchMethodException e) {
+            this.async = false;
+        }
+
+        pl.debug("Teleporting players " + (this.async ? "asynchronously." : "synchronously, as the server doesn't support async teleports."));
+    }
+
+    /**
+     * Teleports the player to the given location.
+     *
+     * @param player to teleport
+     * @param to where they are going
+     * @param prisoner data of the player, to flag as teleporting until they arrive, can be null
+     * @param callback to run on the main thread once they've been teleported, can be null
+     */
+    public void teleport(final Player player, Location to, final Prisoner prisoner, final Callback callback) {
+        if(prisoner != null) prisoner.setTeleporting(true);
+
+        CompletableFuture<Boolean> future = this.async ? player.teleportAsync(to) : null;
+
+        if(future == null) {
+            this.finish(player.teleport(to), prisoner, callback);
+        }else {
+            future.whenComplete(new BiConsumer<Boolean, Throwable>() {
+                public void accept(final Boolean success, Throwable error) {
+                    if(error != null) pl.debug("Teleporting " + player.getName() + " failed: " + error.getMessage());
+                    final boolean done = error == null && success != null && success;
+
+                    //Paper completes them on the main thread, but don't count on it
+                    if(pl.getServer().isPrimaryThread()) {
+                        finish(done, prisoner, callback);
+                    }else {
+                        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+                            public void run() {
+                                finish(done, prisoner, callback);
+                            }
+                        });
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Starts loading the chunk at the given location, so it is ready when someone is teleported there later.
+     *
+     * <p>
+     *
+     * This does nothing when the server can't load chunks asynchronously.
+     *
+     * @param loc the location to load the chunk of
+     */
+    public void preload(Location loc) {
+        if(this.async && loc != null && loc.getWorld() != null)
+            loc.getWorld().getChunkAtAsync(loc);
+    }
+
+    /** Gets whether the players are being teleported asynchronously. */
+    public boolean isAsync() {
+        return this.async;
+    }
+
+    private void finish(boolean success, Prisoner prisoner, Callback callback) {
+        if(prisoner != null) prisoner.setTeleporting(false);
+        if(callback != null) callback.teleported(success);
+    }
+
+    /** Called once a teleport is done. */
+    public interface Callback {
+        /**
+         * Called on the main thread once the player has been teleported, or failed to be.
+         *
+         * @param success whether the player was teleported
+         */
+        public void teleported(boolean success);
+    }
+}
@@ -5,8 +5,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -15,8 +19,10 @@ import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.util.Vector;
 import org.bukkit.util.io.BukkitObjectInputStream;
@@ -31,12 +37,44 @@ import com.graywolf336.jail.enums.Lang;
  *
  * @author graywolf336
  * @since 2.x.x
- * @version 3.1.0
+ * @version 3.1.1
  */
 public class Util {
     private final static Pattern DURATION_PATTERN = Pattern.compile("^(\\d+)\\s*(m(?:inute)?s?|h(?:ours?)?|d(?:ays?)?|s(?:econd)?s?)?$", Pattern.CASE_INSENSITIVE);
+    private final static int TIME_CACHE_SIZE = 64;
+    private final static Map<String, Long> TIME_CACHE = Collections.synchronizedMap(new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > TIME_CACHE_SIZE;
+        }
+    });
+    private final static ThreadLocal<StringBuilder> DURATION_BUILDER = new ThreadLocal<StringBuilder>() {
+        protected StringBuilder initialValue() {
+            return new StringBuilder(16);
+        }
+    };
     private static String[] signLines = new String[] { "", "", "", "" };
+    private static PrisonerTemplate[] signTemplates = compileAll(signLines);
     private final static int inventoryMultipule = 9;
+    private final static EnumMap<Material, EquipmentSlot> ARMOR_SLOTS = new EnumMap<Material, EquipmentSlot>(Material.class);
+
+    static {
+        //Worked out once, by the same names the armor was always recognized by
+        for(Material m : Material.values()) {
+            if(m.isLegacy()) continue;
+
+            String name = m.toString().toLowerCase();
+            if(name.contains("helmet"))
+                ARMOR_SLOTS.put(m, EquipmentSlot.HEAD);
+            else if(name.contains("chestplate"))
+                ARMOR_SLOTS.put(m, EquipmentSlot.CHEST);
+            else if(name.contains("leg"))
+                ARMOR_SLOTS.put(m, EquipmentSlot.LEGS);
+            else if(name.contains("boots"))
+                ARMOR_SLOTS.put(m, EquipmentSlot.FEET);
+        }
+    }
 
     /**
      * Checks if the first {@link Vector} is inside this region.
@@ -78,6 +116,17 @@ public class Util {
         return point1 <= loc && loc <= point2;
     }
 
+    /**
+     * Gets the key of the chunk at the given chunk coordinates, the x in the lower and the z in the upper 32 bits.
+     *
+     * @param x coordinate of the chunk
+     * @param z coordinate of the chunk
+     * @return the key of the chunk
+     */
+    public static long getChunkKey(int x, int z) {
+        return (x & 0xffffffffL) | ((z & 0xffffffffL) << 32);
+    }
+
     /**
      * Checks if the given string is inside the array, ignoring the casing.
      *
@@ -112,6 +161,44 @@ public class Util {
         return false;
     }
 
+    /**
+     * Gets an {@link EnumSet} of the {@link Material materials} in the list, ignoring the casing.
+     *
+     * <p />
+     *
+     * Any names which aren't a valid material are skipped, this way the set can be
+     * built once and then checked against without doing any String work per check.
+     *
+     * @param list of material names
+     * @return the materials which were found in the list
+     */
+    public static EnumSet<Material> getMaterialsFromList(List<String> list) {
+        EnumSet<Material> materials = EnumSet.noneOf(Material.class);
+
+        for(String s : list) {
+            Material m = Material.matchMaterial(s);
+            if(m != null) materials.add(m);
+        }
+
+        return materials;
+    }
+
+    /**
+     * Gets an {@link EnumSet} of all the non-legacy {@link Material materials} whose name contains the given value.
+     *
+     * @param value the part of the name to look for, such as <em>_LOG</em>
+     * @return the materials whose name contains the value
+     */
+    public static EnumSet<Material> getMaterialsContaining(String value) {
+        EnumSet<Material> materials = EnumSet.noneOf(Material.class);
+
+        for(Material m : Material.values())
+            if(!m.isLegacy() && m.name().contains(value))
+                materials.add(m);
+
+        return materials;
+    }
+
     /**
      * Gets a single string from an array of strings, separated by the separator.
      *
@@ -166,21 +253,7 @@ public class Util {
      * @return The message with everything replaced and colorized.
      */
     public static String replaceAllVariables(Prisoner p, String msg) {
-        msg = msg.replace("%player%", p.getLastKnownName())
-                .replace("%uuid%", p.getUUID().toString())
-                .replace("%reason%", p.getReason())
-                .replace("%jailer%", p.getJailer())
-                .replace("%afktime%", Util.getDurationBreakdown(p.getAFKTime()));
-
-        if(p.getRemainingTime() >= 0) {
-            msg = msg.replace("%timeinminutes%", String.valueOf(p.getRemainingTimeInMinutes()));
-            msg = msg.replace("%prettytime%", Util.getDurationBreakdown(p.getRemainingTime()));
-        }else {
-            msg = msg.replace("%timeinminutes%", String.valueOf(-1));
-            msg = msg.replace("%prettytime%", Lang.JAILEDFOREVERSIGN.get());
-        }
-
-        return getColorfulMessage(msg);
+        return PrisonerTemplate.of(msg).render(p);
     }
 
     /**
@@ -199,6 +272,37 @@ public class Util {
         return results;
     }
 
+    /**
+     * Renders all the compiled templates with the given prisoner's values.
+     * 
+     * @param p the {@link Prisoner} data.
+     * @param templates the compiled templates
+     * @return the rendered strings, with the variables replaced and colorized
+     */
+    public static String[] renderAll(Prisoner p, PrisonerTemplate... templates) {
+        String[] results = new String[templates.length];
+
+        for(int i = 0; i < templates.length; i++)
+            results[i] = templates[i].render(p);
+
+        return results;
+    }
+
+    /**
+     * Compiles all the given strings into {@link PrisonerTemplate}s.
+     * 
+     * @param msgs the strings to compile
+     * @return the compiled templates, in the same order
+     */
+    public static PrisonerTemplate[] compileAll(String... msgs) {
+        PrisonerTemplate[] templates = new PrisonerTemplate[msgs.length];
+
+        for(int i = 0; i < msgs.length; i++)
+            templates[i] = PrisonerTemplate.compile(msgs[i]);
+
+        return templates;
+    }
+
     /**
      * Returns the wand used throughout the different creation steps.
      * 
@@ -232,11 +336,26 @@ public class Util {
     /**
      * Converts a string like '20minutes' into the appropriate amount of milliseconds.
      *
+     * <p />
+     *
+     * The same few strings from the config get converted over and over, so the
+     * results of the last ones converted are kept instead of matching them again.
+     *
      * @param time in a string to convert.
      * @return The time in milliseconds that is converted.
      * @throws Exception if there are no matches
      */
     public static Long getTime(String time) throws Exception {
+        Long cached = TIME_CACHE.get(time);
+        if(cached != null) return cached;
+
+        Long t = parseTime(time);
+        TIME_CACHE.put(time, t);
+
+        return t;
+    }
+
+    private static Long parseTime(String time) throws Exception {
         if(time.equalsIgnoreCase("-1")) return -1L;
 
         Long t = 10L;
@@ -277,34 +396,43 @@ public class Util {
             return Lang.JAILEDFOREVERSIGN.get();
         }
 
-        long days = TimeUnit.MILLISECONDS.toDays(millis);
-        millis -= TimeUnit.DAYS.toMillis(days);
-        long hours = TimeUnit.MILLISECONDS.toHours(millis);
-        millis -= TimeUnit.HOURS.toMillis(hours);
-        long minutes = TimeUnit.MILLISECONDS.toMinutes(millis);
-        millis -= TimeUnit.MINUTES.toMillis(minutes);
-        long seconds = TimeUnit.MILLISECONDS.toSeconds(millis);
+        StringBuilder sb = DURATION_BUILDER.get();
+        sb.setLength(0);
+
+        return appendDurationBreakdown(sb, millis).toString();
+    }
+
+    /**
+     * Appends a millisecond duration in the form of "XdYhZmAs" to the provided builder, without creating any strings along the way.
+     *
+     * @param sb the builder to append to
+     * @param millis A duration to convert to a string form
+     * @return the provided builder
+     */
+    public static StringBuilder appendDurationBreakdown(StringBuilder sb, long millis) {
+        if(millis < 0) {
+            return sb.append(Lang.JAILEDFOREVERSIGN.get());
+        }
+
+        long seconds = millis / 1000L;
+        long days = seconds / 86400L;
+        long hours = (seconds / 3600L) % 24L;
+        long minutes = (seconds / 60L) % 60L;
+        seconds %= 60L;
 
-        StringBuilder sb = new StringBuilder(64);
         if(days > 0) {
-            sb.append(days);
-            sb.append("d");
+            sb.append(days).append('d');
         }
 
         if(days > 0 || hours > 0) {
-            sb.append(hours);
-            sb.append("h");
+            sb.append(hours).append('h');
         }
 
         if(days > 0 || hours > 0 || minutes > 0) {
-            sb.append(minutes);
-            sb.append("m");
+            sb.append(minutes).append('m');
         }
 
-        sb.append(seconds);
-        sb.append("s");
-
-        return sb.toString();
+        return sb.append(seconds).append('s');
     }
 
     /**
@@ -316,6 +444,7 @@ public class Util {
     public static void updateSignLinesCache(String[] lines) throws Exception {
         if(lines.length != 4) throw new Exception("Exactly four lines are required for the signs.");
         signLines = lines;
+        signTemplates = compileAll(lines);
     }
 
     /**
@@ -326,6 +455,15 @@ public class Util {
     public static String[] getSignLines() {
         return signLines;
     }
+
+    /**
+     * Gets the compiled templates of the lines which go on the cell signs.
+     * 
+     * @return the compiled templates for the signs
+     */
+    public static PrisonerTemplate[] getSignTemplates() {
+        return signTemplates;
+    }
     
     public static List<String> getUnusedItems(List<String> items, String[] args, boolean useP) {
         List<String> used = new ArrayList<String>();
@@ -478,35 +616,71 @@ public class Util {
         }
     }
 
+    /**
+     * Gets the armor slot the given material is worn in.
+     *
+     * @param material to get the slot of
+     * @return the {@link EquipmentSlot} it goes in, null if it isn't armor
+     */
+    public static EquipmentSlot getArmorSlot(Material material) {
+        return ARMOR_SLOTS.get(material);
+    }
+
+    /**
+     * Puts the armor in the items on the player and gives them the rest, dropping whatever doesn't fit.
+     *
+     * @param player to give the items to
+     * @param items to give, can contain nulls
+     * @param replaceArmor whether armor replaces what they're wearing, or only goes on when they're not wearing anything there
+     */
+    public static void equipAndGiveItems(Player player, ItemStack[] items, boolean replaceArmor) {
+        List<ItemStack> rest = new ArrayList<ItemStack>(items.length);
+        equipArmor(player.getInventory(), items, replaceArmor, rest);
+        giveItems(player, rest);
+    }
+
+    /**
+     * Gives the player the items all at once, dropping whatever doesn't fit at their feet.
+     *
+     * @param player to give the items to
+     * @param items to give, without any nulls
+     */
+    public static void giveItems(Player player, List<ItemStack> items) {
+        if(items.isEmpty()) return;
+
+        for(ItemStack left : player.getInventory().addItem(items.toArray(new ItemStack[items.size()])).values())
+            player.getWorld().dropItem(player.getLocation(), left);
+    }
+
+    private static void equipArmor(PlayerInventory inventory, ItemStack[] items, boolean replace, List<ItemStack> rest) {
+        for(ItemStack item : items) {
+            if(item == null || item.getType() == Material.AIR) continue;
+
+            EquipmentSlot slot = ARMOR_SLOTS.get(item.getType());
+            if(slot != null && (replace || isEmpty(inventory.getItem(slot))))
+                inventory.setItem(slot, item);
+            else
+                rest.add(item);
+        }
+    }
+
+    private static boolean isEmpty(ItemStack item) {
+        return item == null || item.getType() == Material.AIR;
+    }
+
     public static void restoreInventory(Player player, Prisoner prisoner) {
         try {
             Inventory content = Util.fromBase64(prisoner.getInventory());
             ItemStack[] armor = Util.itemStackArrayFromBase64(prisoner.getArmor());
 
-            for(ItemStack item : armor) {
-                if(item == null)
-                    continue;
-                else if(item.getType().toString().toLowerCase().contains("helmet"))
-                    player.getInventory().setHelmet(item);
-                else if(item.getType().toString().toLowerCase().contains("chestplate"))
-                    player.getInventory().setChestplate(item);
-                else if(item.getType().toString().toLowerCase().contains("leg"))
-                    player.getInventory().setLeggings(item);
-                else if(item.getType().toString().toLowerCase().contains("boots"))
-                    player.getInventory().setBoots(item);
-                else if (player.getInventory().firstEmpty() == -1)
-                    player.getWorld().dropItem(player.getLocation(), item);
-                else
-                    player.getInventory().addItem(item);
-            }
+            //Put their armor on them, then give them everything else in one go
+            List<ItemStack> rest = new ArrayList<ItemStack>(content.getSize() + armor.length);
+            equipArmor(player.getInventory(), armor, true, rest);
 
-            for(ItemStack item : content.getContents()) {
-                if(item == null) continue;
-                else if(player.getInventory().firstEmpty() == -1)
-                    player.getWorld().dropItem(player.getLocation(), item);
-                else
-                    player.getInventory().addItem(item);
-            }
+            for(ItemStack item : content.getContents())
+                if(!isEmpty(item)) rest.add(item);
+
+            giveItems(player, rest);
         } catch (IOException e) {
             e.printStackTrace();
             Bukkit.getLogger().severe("Unable to restore " + player.getName() + "'s inventory.");
@@ -0,0 +1,196 @@
+package com.graywolf336.jail;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+
+import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.beans.Violations;
+import com.graywolf336.jail.enums.Lang;
+import com.graywolf336.jail.enums.ProtectionType;
+import com.graywolf336.jail.enums.Settings;
+
+/**
+ * Handles the penalties of prisoners breaking the protections of a jail.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * The first violation of a protection is punished right away, any after that inside of
+ * the configured window are added up and applied as one penalty with one message when
+ * the window ends. That way a prisoner spamming a protection doesn't get dozens of
+ * messages a second and we don't change their time on every single event.
+ * 
+ * <p>&nbsp;</p>
+ * 
+ * This also keeps count of the violations, for anyone wanting to keep track of them.
+ * 
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class ViolationManager {
+    private JailMain pl;
+    private HashMap<UUID, Violations> violations;
+    private EnumMap<ProtectionType, Long> penalties;
+    private long[] counts;
+    private long throttled;
+    private long window;
+
+    protected ViolationManager(JailMain plugin) {
+        this.pl = plugin;
+        this.violations = new HashMap<UUID, Violations>();
+        this.penalties = new EnumMap<ProtectionType, Long>(ProtectionType.class);
+        this.counts = new long[ProtectionType.values().length];
+        this.loadPenalties();
+    }
+
+    /** Loads the penalties and the window from the config, so we don't parse the times on every violation. */
+    public void loadPenalties() {
+        this.penalties.clear();
+
+        for(ProtectionType type : ProtectionType.values()) {
+            try {
+                this.penalties.put(type, Util.getTime(pl.getConfig().getString(type.getPenaltySetting().getPath())));
+            } catch (Exception e) {
+                pl.getLogger().severe("The penalty for " + type.toString().toLowerCase() + " is in the wrong format, please fix.");
+            }
+        }
+
+        try {
+            this.window = Util.getTime(pl.getConfig().getString(Settings.PROTECTIONPENALTYWINDOW.getPath()));
+        } catch (Exception e) {
+            this.window = 0L;
+            pl.getLogger().severe("The protection penalty window is in the wrong format, please fix.");
+        }
+    }
+
+    /**
+     * Punishes the prisoner for violating the given protection, unless they were already punished
+     * for it inside of the current window in which case it is added to the penalty applied at the end of it.
+     * 
+     * @param player who violated the protection
+     * @param prisoner data of the player
+     * @param type of the protection they violated
+     */
+    public void punish(Player player, Prisoner prisoner, ProtectionType type) {
+        this.counts[type.ordinal()]++;
+
+        if(this.window <= 0L) {
+            this.apply(player, prisoner, type, 1);
+            return;
+        }
+
+        final UUID uuid = player.getUniqueId();
+        long now = System.currentTimeMillis();
+        Violations v = this.violations.get(uuid);
+
+        if(v == null) {
+            v = new Violations();
+            this.violations.put(uuid, v);
+        }
+
+        if(v.inWindow(type, now)) {
+            v.addPending(type);
+            this.throttled++;
+        }else {
+            this.apply(player, prisoner, type, 1);
+            this.startWindow(uuid, v, type, now);
+        }
+    }
+
+    private void startWindow(final UUID uuid, final Violations v, final ProtectionType type, long now) {
+        v.startWindow(type, now + this.window);
+
+        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+            public void run() {
+                endWindow(uuid, v, type);
+            }
+        }, Math.max(1L, this.window / 50L));
+    }
+
+    private void endWindow(UUID uuid, Violations v, ProtectionType type) {
+        //If the violations were removed, then they were cleared out
+        if(this.violations.get(uuid) != v) return;
+
+        long now = System.currentTimeMillis();
+        int pending = v.takePending(type);
+        Prisoner p = pending == 0 ? null : pl.getJailManager().getPrisoner(uuid);
+
+        if(p != null) {
+            //Apply everything they did during the window as one penalty and open a new
+            //window, so someone who keeps on going only gets one message per window
+            this.apply(pl.getServer().getPlayer(uuid), p, type, pending);
+            this.startWindow(uuid, v, type, now);
+        }else {
+            v.startWindow(type, 0L);
+            if(v.isIdle(now)) this.violations.remove(uuid);
+        }
+    }
+
+    private void apply(Player player, Prisoner prisoner, ProtectionType type, int times) {
+        Long penalty = this.penalties.get(type);
+
+        //The penalty is in the wrong format, which was logged when it was loaded.
+        //We don't add any time as a fail safe, don't want us to go crazy adding tons of time.
+        if(penalty == null) return;
+
+        long add = penalty * times;
+        prisoner.addTime(add);
+
+        if(player == null) return;
+
+        if(add == 0L) {
+            //Generate the protection message, provide the method with one argument
+            //which is the thing we are protecting against
+            player.sendMessage(Lang.PROTECTIONMESSAGENOPENALTY.get(type.getLang()));
+        }else {
+            //Generate the protection message, provide the method with two arguments
+            //First is the time in minutes and second is the thing we are protecting against
+            player.sendMessage(Lang.PROTECTIONMESSAGE.get(new String[] { String.valueOf(TimeUnit.MINUTES.convert(add, TimeUnit.MILLISECONDS)), type.getLang().get() }));
+        }
+    }
+
+    /**
+     * Gets the amount of times the given protection has been violated since the plugin was enabled.
+     * 
+     * @param type of the protection
+     * @return the amount of violations
+     */
+    public long getViolationCount(ProtectionType type) {
+        return this.counts[type.ordinal()];
+    }
+
+    /**
+     * Gets the amount of times any protection has been violated since the plugin was enabled.
+     * 
+     * @return the amount of violations
+     */
+    public long getTotalViolationCount() {
+        long total = 0;
+        for(long c : this.counts)
+            total += c;
+
+        return total;
+    }
+
+    /**
+     * Gets the amount of violations which were added to a combined penalty instead of being punished on their own.
+     * 
+     * @return the amount of throttled violations
+     */
+    public long getThrottledCount() {
+        return this.throttled;
+    }
+
+    /**
+     * Gets the amount of players who currently have penalty windows open.
+     * 
+     * @return the amount of tracked players
+     */
+    public int getTrackedCount() {
+        return this.violations.size();
+    }
+}
@@ -1,6 +1,7 @@
 package com.graywolf336.jail.beans;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -20,7 +21,7 @@ import com.graywolf336.jail.interfaces.ICell;
  *
  * @author graywolf336
  * @since 3.0.0
- * @version 1.2.0
+ * @version 1.2.1
  */
 public class Cell implements ICell {
     private int databaseid;
@@ -29,6 +30,7 @@ public class Cell implements ICell {
     private HashSet<SimpleLocation> signs;
     private SimpleLocation teleport, chest;
     private boolean changed;
+    private int version;
 
     /** Creates a new Cell with the given name
      *
@@ -65,6 +67,7 @@ public class Cell implements ICell {
     public void setPrisoner(Prisoner prisoner) {
         this.p = prisoner;
         this.changed = true;
+        this.version++;
     }
 
     public Prisoner getPrisoner() {
@@ -74,6 +77,12 @@ public class Cell implements ICell {
     public void removePrisoner() {
         this.p = null;
         this.changed = true;
+        this.version++;
+    }
+
+    /** Gets a number which changes every time the prisoner in this cell changes. */
+    public int getVersion() {
+        return this.version;
     }
 
     public boolean hasPrisoner() {
@@ -141,31 +150,48 @@ public class Cell implements ICell {
     }
 
     public HashMap<String, List<String>> updateSigns() {
+        return this.updateSigns(new ArrayList<SimpleLocation>(signs));
+    }
+
+    public HashMap<String, List<String>> updateSigns(Collection<SimpleLocation> only) {
         List<String> removed = new ArrayList<String>();
         List<String> updated = new ArrayList<String>();
+        List<String> deferred = new ArrayList<String>();
+
+        //All the signs show the same thing, so only render the lines once
+        String[] lines;
+        if(hasPrisoner()) {
+            lines = Util.renderAll(p, Util.getSignTemplates());
+        }else {
+            lines = new String[] { "", Lang.CELLEMPTYSIGN.get(), "", "" };
+        }
+
+        for(SimpleLocation s : new ArrayList<SimpleLocation>(only)) {
+            //It could have been removed since it was asked to be updated
+            if(!signs.contains(s)) continue;
+
+            //Getting the block would load the chunk, so leave it for when the chunk loads
+            if(!s.isChunkLoaded()) {
+                deferred.add(s.toString());
+                continue;
+            }
 
-        for(SimpleLocation s : new HashSet<SimpleLocation>(signs)) {
             BlockState bs = s.getLocation().getBlock().getState();
 
             if (bs instanceof Sign) {
                 Sign sign = (Sign) bs;
+                boolean different = false;
 
-                if(hasPrisoner()) {
-                    String[] lines = Util.replaceAllVariables(p, Util.getSignLines());
-
-                    sign.setLine(0, lines[0]);
-                    sign.setLine(1, lines[1]);
-                    sign.setLine(2, lines[2]);
-                    sign.setLine(3, lines[3]);
-                    sign.update(true, false);
-                }else {
-                    sign.setLine(0, "");
-                    sign.setLine(1, Lang.CELLEMPTYSIGN.get());
-                    sign.setLine(2, "");
-                    sign.setLine(3, "");
-                    sign.update(true, false);
+                for(int i = 0; i < 4; i++) {
+                    if(!lines[i].equals(sign.getLine(i))) {
+                        sign.setLine(i, lines[i]);
+                        different = true;
+                    }
                 }
 
+                //Only send the update when the text is different, as that is the expensive part
+                if(different) sign.update(true, false);
+
                 updated.add(s.toString());
             }else {
                 changed = true;
@@ -177,6 +203,7 @@ public class Cell implements ICell {
         HashMap<String, List<String>> results = new HashMap<String, List<String>>();
         results.put("removed", removed);
         results.put("updated", updated);
+        results.put("deferred", deferred);
 
         return results;
     }
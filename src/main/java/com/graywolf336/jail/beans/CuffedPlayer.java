@@ -0,0 +1,98 @@
+package com.graywolf336.jail.beans;
+
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Represents the state of a handcuffed player, where they were cuffed and when they were last told about it.
+ *
+ * <p>
+ *
+ * The location where they were cuffed is copied when this is created and it is
+ * never handed out directly, that way nothing outside of this can change where
+ * the player is being held at.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class CuffedPlayer {
+    /** The amount of time, in milliseconds, between the messages we send the cuffed player. */
+    public static final long MESSAGE_INTERVAL = 10000L;
+
+    private UUID uuid;
+    private World world;
+    private double x, y, z;
+    private long nextMessage;
+
+    /**
+     * Creates a new handcuffed state for the given player.
+     *
+     * @param uuid of the player who is handcuffed
+     * @param location where the player was handcuffed at
+     */
+    public CuffedPlayer(UUID uuid, Location location) {
+        this.uuid = uuid;
+        this.world = location.getWorld();
+        this.x = location.getX();
+        this.y = location.getY();
+        this.z = location.getZ();
+        this.nextMessage = System.currentTimeMillis();
+    }
+
+    /** Returns the UUID of the handcuffed player. */
+    public UUID getUUID() {
+        return this.uuid;
+    }
+
+    /** Returns a <strong>new</strong> {@link Location} of where the player was handcuffed at. */
+    public Location getLocation() {
+        return new Location(world, x, y, z);
+    }
+
+    /**
+     * Returns a <strong>new</strong> {@link Location} where the player was handcuffed at
+     * but facing the way of the provided location, so they can still look around.
+     *
+     * @param facing the location to take the yaw and pitch from
+     * @return the location the player should be held at
+     */
+    public Location getLocation(Location facing) {
+        return new Location(world, x, y, z, facing.getYaw(), facing.getPitch());
+    }
+
+    /**
+     * Checks whether the provided location is where the player is being held at, ignoring which way they face.
+     *
+     * @param loc the location to check
+     * @return true if it is the same position, false if they are trying to go somewhere
+     */
+    public boolean isHeldAt(Location loc) {
+        return loc.getX() == x && loc.getY() == y && loc.getZ() == z && loc.getWorld() == world;
+    }
+
+    /** Returns the system time, in milliseconds, when we can next message the player. */
+    public long getNextMessageTime() {
+        return this.nextMessage;
+    }
+
+    /**
+     * Checks if we can send the player a message now and if so, moves the next time we can forward.
+     *
+     * @param now the current system time in milliseconds
+     * @return true if a message should be sent, false if one was sent recently
+     */
+    public boolean shouldMessage(long now) {
+        if(now < this.nextMessage) return false;
+
+        this.nextMessage = now + MESSAGE_INTERVAL;
+        return true;
+    }
+
+    /** Pushes the next time we can message the player to {@link #MESSAGE_INTERVAL} from now. */
+    public void updateNextMessageTime() {
+        this.nextMessage = System.currentTimeMillis() + MESSAGE_INTERVAL;
+    }
+}
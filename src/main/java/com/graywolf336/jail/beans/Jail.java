@@ -2,6 +2,7 @@ package com.graywolf336.jail.beans;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 
 import org.bukkit.Location;
@@ -10,6 +11,7 @@ import org.bukkit.block.Sign;
 import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
 
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.JailMain;
 import com.graywolf336.jail.Util;
 
@@ -17,22 +19,25 @@ import com.graywolf336.jail.Util;
  * 
  * @author graywolf336
  * @since 3.0.0
- * @version 1.0.3
+ * @version 1.0.7
  */
 public class Jail {
     private JailMain plugin;
     private boolean enabled;
     private HashMap<String, Cell> cells;
+    private CompletionIndex cellNames;
     private HashMap<UUID, Prisoner> nocellPrisoners;//prisoners who aren't in a cell
     private String name = "", world = "";
     private int minX, minY, minZ, maxX, maxY, maxZ;
     private Location in, free;
+    private int version;
 
     public Jail(JailMain plugin, String name) {
         this.plugin = plugin;
         this.enabled = true;
         this.name = name;
         cells = new HashMap<String, Cell>();
+        cellNames = new CompletionIndex();
         nocellPrisoners = new HashMap<UUID, Prisoner>();
     }
 
@@ -186,12 +191,16 @@ public class Jail {
 
     /** Add a prisoner to this jail. */
     public void addPrisoner(Prisoner p) {
-        this.nocellPrisoners.put(p.getUUID(), p);
+        if(this.nocellPrisoners.put(p.getUUID(), p) == null && plugin.getJailManager() != null)
+            plugin.getJailManager().addPrisonerName(p.getLastKnownName());
+        this.version++;
     }
 
     /** Removes a prisoner from this jail, doesn't remove it from the cell. */
     public void removePrisoner(Prisoner p) {
-        this.nocellPrisoners.remove(p.getUUID());
+        if(this.nocellPrisoners.remove(p.getUUID()) != null && plugin.getJailManager() != null)
+            plugin.getJailManager().removePrisonerName(p.getLastKnownName());
+        this.version++;
     }
     
     /** Returns if there are any cells or not. */
@@ -206,6 +215,9 @@ public class Jail {
         //Check if it already exists or not
         if(this.cells.containsKey(cell.getName())) return false;
         else this.cells.put(cell.getName(), cell);
+        this.cellNames.add(cell.getName());
+        this.version++;
+        if(plugin.getChunkTicketManager() != null) plugin.getChunkTicketManager().refresh();
         return true;
     }
 
@@ -239,8 +251,15 @@ public class Jail {
 
         //remove the information from the storage first as it requires an instance
         plugin.getJailIO().removeCell(this, c);
+        //Their name can't be completed any more once the cell is gone
+        if(c.hasPrisoner()) plugin.getJailManager().removePrisonerName(c.getPrisoner().getLastKnownName());
         //now remove it from the local storage
         this.cells.remove(name);
+        this.cellNames.remove(name);
+        if(plugin.getCellSignUpdater() != null) plugin.getCellSignUpdater().forget(c);
+        //Keep the cell's changes counted, otherwise the version could end up where it was before
+        this.version += c.getVersion() + 1;
+        if(plugin.getChunkTicketManager() != null) plugin.getChunkTicketManager().refresh();
     }
 
     /** Returns the cell which the given player name is jailed in, null if not. */
@@ -283,6 +302,17 @@ public class Jail {
         return new HashSet<Cell>(this.cells.values());
     }
 
+    /**
+     * Gets the sorted names of the cells which start with the provided prefix, for tab completing.
+     * 
+     * @param prefix the names should start with, empty for all of them
+     * @param filter which the names have to pass, null for all of them
+     * @return the cell names, at most {@link CompletionIndex#MAX_RESULTS} of them
+     */
+    public List<String> getCellsByPrefix(String prefix, CompletionIndex.Filter filter) {
+        return this.cellNames.getByPrefix(prefix, filter);
+    }
+
     /** Gets the closest cell to the provided location, via the teleport in location of the cells. */
     public Cell getNearestCell(Location loc) {
         Cell cell = null;
@@ -308,6 +338,11 @@ public class Jail {
 
     /** Clears all the prisoners from this Jail. */
     public void clearPrisoners() {
+        //Their names can't be completed any more once they're cleared
+        for(Prisoner p : getAllPrisoners().values()) {
+            plugin.getJailManager().removePrisonerName(p.getLastKnownName());
+        }
+
         //Remove the prisoners from all the cells
         for(Cell c : getCells()) {
             c.removePrisoner();
@@ -316,6 +351,24 @@ public class Jail {
         //Replace all the current no cell prisoners with
         //a new hashset of prisoners.
         this.nocellPrisoners = new HashMap<UUID, Prisoner>();
+        this.version++;
+    }
+
+    /**
+     * Gets a number which changes whenever a prisoner or cell is added to, or removed from, this jail.
+     * 
+     * <p>
+     * 
+     * Useful for knowing when something worked out from the prisoners or cells needs to be worked out again.
+     * 
+     * @return the version of this jail's contents
+     */
+    public int getVersion() {
+        int v = this.version;
+        for(Cell c : this.cells.values())
+            v += c.getVersion();
+
+        return v;
     }
 
     /** Gets a HashMap of <b>all</b> the prisoners, the ones in cells and ones who aren't. */
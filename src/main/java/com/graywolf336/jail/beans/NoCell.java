@@ -1,5 +1,6 @@
 package com.graywolf336.jail.beans;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -14,7 +15,7 @@ import com.graywolf336.jail.interfaces.ICell;
  *
  * @author graywolf336
  * @since 3.0.0
- * @version 1.0.0
+ * @version 1.0.1
  *
  */
 public class NoCell implements ICell {
@@ -74,6 +75,10 @@ public class NoCell implements ICell {
         throw new UnsupportedOperationException();
     }
 
+    public HashMap<String, List<String>> updateSigns(Collection<SimpleLocation> signs) {
+        throw new UnsupportedOperationException();
+    }
+
     public void setTeleport(SimpleLocation location) {
         throw new UnsupportedOperationException();
     }
@@ -15,12 +15,15 @@ import com.graywolf336.jail.enums.Lang;
  *
  * @author graywolf336
  * @since 2.x.x
- * @version 3.1.1
+ * @version 3.1.5
  */
 public class Prisoner {
     private String uuid, name, jailer, reason, inventory, armor;
     private boolean muted = true, offlinePending = false, teleporting = false, toBeTransferred = false, changed = false;
-    private long time = -1L, afk = 0L;
+    private long time = -1L;
+    private volatile long offlineDeadline = 0L;
+    private volatile boolean afkTracked = false;
+    private volatile long lastActivity = 0L;
     private Location previousPosition;
     private GameMode previousGameMode;
 
@@ -232,14 +235,17 @@ public class Prisoner {
         return this.time == -1;
     }
 
-    /** Gets the remaining time the prisoner has. */
+    /** Gets the remaining time the prisoner has, worked out from their deadline while their time counts down offline. */
     public long getRemainingTime() {
+        if(this.offlineDeadline > 0L)
+            return Math.max(0L, this.offlineDeadline - System.currentTimeMillis());
+
         return this.time;
     }
 
     /** Gets the remaining time the prisoner has in minutes. */
     public long getRemainingTimeInMinutes() {
-        return TimeUnit.MINUTES.convert(time, TimeUnit.MILLISECONDS);
+        return TimeUnit.MINUTES.convert(this.getRemainingTime(), TimeUnit.MILLISECONDS);
     }
 
     /** Gets the remaining time the prison has in minutes except only in int format. */
@@ -255,6 +261,10 @@ public class Prisoner {
     public void setRemainingTime(long time) {
         this.time = time;
         this.changed = true;
+
+        //Move their deadline along with it, if their time is counting down while offline
+        if(this.offlineDeadline > 0L)
+            this.offlineDeadline = time < 0L ? 0L : System.currentTimeMillis() + time;
     }
 
     /**
@@ -264,12 +274,10 @@ public class Prisoner {
      * @return the new remaining time the prisoner has
      */
     public long addTime(long time) {
-        if(this.time != -1L) {
-            this.time += time;
-            this.changed = true;
-        }
+        if(this.time != -1L)
+            this.setRemainingTime(this.getRemainingTime() + time);
 
-        return this.time;
+        return this.getRemainingTime();
     }
 
     /**
@@ -279,11 +287,43 @@ public class Prisoner {
      * @return the new remaining time the prisoner has
      */
     public long subtractTime(long time) {
-        if(this.time != -1L && this.time - time > -1L) {
-            this.time -= time;
-            this.changed = true;
-        }
+        long remaining = this.getRemainingTime();
+        if(this.time != -1L && remaining - time > -1L)
+            this.setRemainingTime(remaining - time);
+
+        return this.getRemainingTime();
+    }
+
+    /** Gets when, in milliseconds, the time of this prisoner runs out while they're offline, 0 if it isn't counting down that way. */
+    public long getOfflineDeadline() {
+        return this.offlineDeadline;
+    }
+
+    /**
+     * Starts counting down the prisoner's time while they're offline, by the deadline of when it runs out.
+     *
+     * @param from the time, in milliseconds, their remaining time counts down from
+     * @return the deadline of when their time runs out, 0 if they don't have any time to count down
+     */
+    public long startOfflineCountdown(long from) {
+        if(this.offlineDeadline == 0L && this.time > 0L)
+            this.offlineDeadline = from + this.time;
+
+        return this.offlineDeadline;
+    }
 
+    /** Gets the time the prisoner had when it started counting down while they're offline, or when it was last set. */
+    public long getOfflineCountdownTime() {
+        return this.time;
+    }
+
+    /**
+     * Stops counting down the prisoner's time while they're offline, putting their time back to what it was when it started.
+     *
+     * @return the time they had when it started counting down, or when it was last set
+     */
+    public long stopOfflineCountdown() {
+        this.offlineDeadline = 0L;
         return this.time;
     }
 
@@ -294,6 +334,12 @@ public class Prisoner {
 
     /** Sets whether the player is offline or not. */
     public void setOfflinePending(boolean offline) {
+        //Their time doesn't count down while there is something pending, so keep what they've served
+        if(offline && this.offlineDeadline > 0L) {
+            this.time = this.getRemainingTime();
+            this.offlineDeadline = 0L;
+        }
+
         this.offlinePending = offline;
         this.changed = true;
     }
@@ -397,19 +443,37 @@ public class Prisoner {
         this.changed = true;
     }
 
-    /** Gets the time, in milliseconds, this prisoner has been afk. */
+    /** Gets the time, in milliseconds, this prisoner has been afk, 0 while it isn't kept track of. */
     public long getAFKTime() {
-        return this.afk;
+        return this.afkTracked ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.lastActivity) : 0L;
     }
 
     /** Sets the time, in milliseconds, this prisoner has been afk. */
     public void setAFKTime(long time) {
-        this.afk = time;
+        this.lastActivity = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(time);
+        this.afkTracked = true;
+    }
+
+    /** Gets when, by {@link System#nanoTime()}, this prisoner was last active. */
+    public long getLastActivity() {
+        return this.lastActivity;
+    }
+
+    /** Marks this prisoner as being active right now, which their afk time starts from. */
+    public void markActive() {
+        this.lastActivity = System.nanoTime();
+        this.afkTracked = true;
+    }
+
+    /** Stops keeping track of how long this prisoner is afk, like when they go offline, their afk time is 0 until they're marked active again. */
+    public void stopAFKTracking() {
+        this.afkTracked = false;
     }
 
     /** Checks if the prisoner was changed or not. */
     public boolean wasChanged() {
-        return this.changed;
+        //Their time changes all the while it counts down offline
+        return this.changed || this.offlineDeadline > 0L;
     }
 
     /** Sets whether the prisoner was changed or not. */
@@ -4,12 +4,14 @@ import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 
+import com.graywolf336.jail.Util;
+
 /**
  * Simple location class which doesn't store any instances of {@link World worlds} or {@link org.bukkit.block.Block blocks}, just uses strings, floats, and doubles.
  * 
  * @author graywolf336
  * @since 3.0.0
- * @version 1.1.1
+ * @version 1.2.0
  */
 public class SimpleLocation {
     private String world;
@@ -91,6 +93,17 @@ public class SimpleLocation {
         return this.world;
     }
 
+    /** Returns the key of the chunk this location is in, see {@link Util#getChunkKey(int, int)}. */
+    public long getChunkKey() {
+        return Util.getChunkKey(((int) Math.floor(x)) >> 4, ((int) Math.floor(z)) >> 4);
+    }
+
+    /** Returns whether the world is loaded and the chunk this location is in is loaded, without loading it. */
+    public boolean isChunkLoaded() {
+        World w = Bukkit.getWorld(world);
+        return w != null && w.isChunkLoaded(((int) Math.floor(x)) >> 4, ((int) Math.floor(z)) >> 4);
+    }
+
     /** Returns a new {@link Location} from this SimpleLocation. */
     public Location getLocation() {
         return new Location(Bukkit.getWorld(world), x, y, z, yaw, pitch);
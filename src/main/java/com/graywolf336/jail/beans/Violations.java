@@ -0,0 +1,76 @@
+package com.graywolf336.jail.beans;
+
+import com.graywolf336.jail.enums.ProtectionType;
+
+/**
+ * Keeps track of a prisoner's protection violations inside of the current penalty windows.
+ *
+ * <p>
+ *
+ * Each {@link ProtectionType} has its own window, the first violation of a window is
+ * punished right away and the ones after are held as pending until the window ends.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class Violations {
+    private long[] windowEnds;
+    private int[] pending;
+
+    public Violations() {
+        this.windowEnds = new long[ProtectionType.values().length];
+        this.pending = new int[ProtectionType.values().length];
+    }
+
+    /**
+     * Checks whether there is a penalty window open for the given protection.
+     *
+     * @param type of the protection
+     * @param now the current system time in milliseconds
+     * @return true if the window is still open, false if not
+     */
+    public boolean inWindow(ProtectionType type, long now) {
+        return now < this.windowEnds[type.ordinal()];
+    }
+
+    /** Opens a new penalty window for the given protection, which ends at the given system time. */
+    public void startWindow(ProtectionType type, long end) {
+        this.windowEnds[type.ordinal()] = end;
+    }
+
+    /**
+     * Adds a pending violation for the given protection.
+     *
+     * @param type of the protection
+     * @return the amount of pending violations, including this one
+     */
+    public int addPending(ProtectionType type) {
+        return ++this.pending[type.ordinal()];
+    }
+
+    /**
+     * Takes the pending violations of the given protection, resetting them to zero.
+     *
+     * @param type of the protection
+     * @return the amount of violations which were pending
+     */
+    public int takePending(ProtectionType type) {
+        int count = this.pending[type.ordinal()];
+        this.pending[type.ordinal()] = 0;
+        return count;
+    }
+
+    /**
+     * Checks whether there are no open windows left.
+     *
+     * @param now the current system time in milliseconds
+     * @return true if every window has ended, false if not
+     */
+    public boolean isIdle(long now) {
+        for(long end : this.windowEnds)
+            if(now < end) return false;
+
+        return true;
+    }
+}
@@ -2,9 +2,7 @@ package com.graywolf336.jail.command;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map.Entry;
 
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -23,25 +21,25 @@ import com.graywolf336.jail.enums.Lang;
  * 
  * @author graywolf336
  * @since 3.0.0
- * @version 1.0.2
+ * @version 1.0.3
  *
  */
 public class CommandHandler {
-    private LinkedHashMap<String, Command> commands;
+    private CommandTable commands;
 
     public CommandHandler(JailMain plugin) {
-        commands = new LinkedHashMap<String, Command>();
+        commands = new CommandTable();
         loadCommands();
 
         plugin.debug("Loaded " + commands.size() + " commands.");
     }
     
     public List<String> parseTabComplete(JailManager jm, CommandSender sender, String commandLine, String[] args) throws Exception {
-        List<Command> matches = getMatches(commandLine);
+        List<CommandTable.Entry> matches = commands.getMatches(commandLine);
         
         if(matches.isEmpty() || matches.size() > 1) return Collections.emptyList();
         else {
-            CommandInfo i = matches.get(0).getClass().getAnnotation(CommandInfo.class);
+            CommandInfo i = matches.get(0).getInfo();
             
             //Sender provided too many arguments which means there
             //is nothing to tab complete
@@ -54,7 +52,7 @@ public class CommandHandler {
             if(!sender.hasPermission(i.permission())) return Collections.emptyList();
             
             //Let the command handle the rest of it
-            return matches.get(0).provideTabCompletions(jm, sender, args);
+            return matches.get(0).getCommand().provideTabCompletions(jm, sender, args);
         }
     }
 
@@ -80,7 +78,7 @@ public class CommandHandler {
      * @param args The arguments passed to the command.
      */
     public void handleCommand(JailManager jailmanager, CommandSender sender, String commandLine, String[] args) {
-        List<Command> matches = getMatches(commandLine);
+        List<CommandTable.Entry> matches = commands.getMatches(commandLine);
 
         //If no matches were found, send them the unknown command message.
         if(matches.isEmpty()) {
@@ -103,13 +101,13 @@ public class CommandHandler {
 
         //If more than one command was found, send them each command's help message.
         if(matches.size() > 1) {
-            for(Command c : matches)
+            for(CommandTable.Entry c : matches)
                 showUsage(sender, c);
             return;
         }
 
-        Command c = matches.get(0);
-        CommandInfo i = c.getClass().getAnnotation(CommandInfo.class);
+        CommandTable.Entry c = matches.get(0);
+        CommandInfo i = c.getInfo();
 
         // First, let's check if the sender has permission for the command.
         if(!sender.hasPermission(i.permission())) {
@@ -138,7 +136,7 @@ public class CommandHandler {
         // Since everything has been checked and we're all clear, let's execute it.
         // But if get back false, let's show the usage message.
         try {
-            if(!c.execute(jailmanager, sender, args)) {
+            if(!c.getCommand().execute(jailmanager, sender, args)) {
                 showUsage(sender, c);
                 return;
             }
@@ -149,26 +147,14 @@ public class CommandHandler {
         }
     }
 
-    private List<Command> getMatches(String command) {
-        List<Command> result = new ArrayList<Command>();
-
-        for(Entry<String, Command> entry : commands.entrySet()) {
-            if(command.matches(entry.getKey())) {
-                result.add(entry.getValue());
-            }
-        }
-
-        return result;
-    }
-
     /**
      * Shows the usage information to the sender, if they have permission.
      * 
      * @param sender The sender of the command
      * @param command The command to send usage of.
      */
-    private void showUsage(CommandSender sender, Command command) {
-        CommandInfo info = command.getClass().getAnnotation(CommandInfo.class);
+    private void showUsage(CommandSender sender, CommandTable.Entry command) {
+        CommandInfo info = command.getInfo();
         if(!sender.hasPermission(info.permission())) return;
 
         sender.sendMessage(info.usage());
@@ -184,13 +170,6 @@ public class CommandHandler {
     }
 
     private void load(Class<? extends Command> c) {
-        CommandInfo info = c.getAnnotation(CommandInfo.class);
-        if(info == null) return;
-
-        try {
-            commands.put(info.pattern(), c.newInstance());
-        }catch(Exception e) {
-            e.printStackTrace();
-        }
+        commands.register(c);
     }
 }
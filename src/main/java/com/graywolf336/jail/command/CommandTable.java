@@ -0,0 +1,163 @@
+package com.graywolf336.jail.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The commands a handler knows about, with everything it needs from them worked out when they're registered.
+ *
+ * <p>
+ *
+ * A command whose pattern is just a list of names, like <em>list|l</em>, is looked up
+ * by each of those names in a map. Any other pattern is compiled once and checked
+ * when the name lookup doesn't settle it, so a dispatch normally costs one lookup
+ * instead of running every command's regex and reading its annotation.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class CommandTable {
+    private static final Pattern ALIASES = Pattern.compile("[a-z0-9]+(\\|[a-z0-9]+)*");
+
+    private HashMap<String, Entry> aliases;
+    private List<Entry> patterns;
+    private List<Entry> entries;
+    private List<Entry> sorted;
+
+    public CommandTable() {
+        this.aliases = new HashMap<String, Entry>();
+        this.patterns = new ArrayList<Entry>();
+        this.entries = new ArrayList<Entry>();
+        this.sorted = new ArrayList<Entry>();
+    }
+
+    /**
+     * Creates an instance of the given command and registers it under the names from its {@link CommandInfo}.
+     *
+     * @param c the class of the command, must have a {@link CommandInfo} annotation
+     */
+    public void register(Class<? extends Command> c) {
+        CommandInfo info = c.getAnnotation(CommandInfo.class);
+        if(info == null) return;
+
+        Entry e;
+        try {
+            e = new Entry(c.newInstance(), info);
+        }catch(Exception ex) {
+            ex.printStackTrace();
+            return;
+        }
+
+        if(ALIASES.matcher(info.pattern()).matches()) {
+            for(String alias : e.names)
+                if(!this.aliases.containsKey(alias))
+                    this.aliases.put(alias, e);
+        }else {
+            e.regex = Pattern.compile(info.pattern());
+            this.patterns.add(e);
+        }
+
+        this.entries.add(e);
+        this.sorted.add(e);
+        Collections.sort(this.sorted, new Comparator<Entry>() {
+            public int compare(Entry a, Entry b) {
+                return a.getName().compareTo(b.getName());
+            }
+        });
+    }
+
+    /**
+     * Gets the commands which match the given name.
+     *
+     * @param command the name, or alias, of the command
+     * @return the matching commands, empty if none match
+     */
+    public List<Entry> getMatches(String command) {
+        Entry e = this.aliases.get(command);
+        if(this.patterns.isEmpty())
+            return e == null ? Collections.<Entry>emptyList() : Collections.singletonList(e);
+
+        List<Entry> result = new ArrayList<Entry>();
+        if(e != null) result.add(e);
+
+        for(Entry p : this.patterns)
+            if(p.regex.matcher(command).matches())
+                result.add(p);
+
+        return result;
+    }
+
+    /**
+     * Gets the command registered with the given name, only looking at commands registered by their names.
+     *
+     * @param alias the exact name of the command
+     * @return the command, null if there isn't one by that name
+     */
+    public Entry get(String alias) {
+        return this.aliases.get(alias);
+    }
+
+    /** Gets all the commands, in the order they were registered. */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(this.entries);
+    }
+
+    /** Gets all the commands, sorted by their primary name. */
+    public List<Entry> getSortedEntries() {
+        return Collections.unmodifiableList(this.sorted);
+    }
+
+    /** Gets the amount of commands registered. */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /** A registered command along with its {@link CommandInfo}, read once when it was registered. */
+    public static class Entry {
+        private Command command;
+        private CommandInfo info;
+        private String[] names;
+        private Pattern regex;
+
+        private Entry(Command command, CommandInfo info) {
+            this.command = command;
+            this.info = info;
+            this.names = info.pattern().split("\\|");
+        }
+
+        /** Gets the instance of the command. */
+        public Command getCommand() {
+            return this.command;
+        }
+
+        /** Gets the {@link CommandInfo} of the command. */
+        public CommandInfo getInfo() {
+            return this.info;
+        }
+
+        /** Gets the primary name of the command, the first one in its pattern. */
+        public String getName() {
+            return this.names[0];
+        }
+
+        /**
+         * Checks whether the given name matches this command's pattern.
+         *
+         * @param command the name to check
+         * @return true if it matches, false if not
+         */
+        public boolean matches(String command) {
+            if(this.regex != null) return this.regex.matcher(command).matches();
+
+            for(String alias : this.names)
+                if(alias.equals(command)) return true;
+
+            return false;
+        }
+    }
+}
@@ -2,9 +2,7 @@ package com.graywolf336.jail.command;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map.Entry;
 
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
@@ -45,32 +43,32 @@ import com.graywolf336.jail.enums.Lang;
  * 
  * @author graywolf336
  * @since 3.0.0
- * @version 1.1.0
+ * @version 1.1.1
  *
  */
 public class JailHandler {
-    private LinkedHashMap<String, Command> commands;
+    private CommandTable commands;
 
     public JailHandler(JailMain plugin) {
-        commands = new LinkedHashMap<String, Command>();
+        commands = new CommandTable();
         loadCommands();
 
         plugin.debug("Loaded " + commands.size() + " sub-commands of /jail.");
     }
     
     public List<String> parseTabComplete(JailManager jm, CommandSender sender, String[] args) throws Exception {
+        CommandTable.Entry jail = commands.get("jail");
+        boolean hasJailPermission = jail != null && sender.hasPermission(jail.getInfo().permission());
+
         if(args[0].isEmpty() || args.length == 1) {
             List<String> results = new ArrayList<String>();
             String arg0 = args[0].toLowerCase();
-            boolean hasJailPermission = false;
             
-            for(Command c : commands.values()) {
-                CommandInfo i = c.getClass().getAnnotation(CommandInfo.class);
+            //The entries are already sorted by their name, so the results come out sorted
+            for(CommandTable.Entry c : commands.getSortedEntries()) {
+                CommandInfo i = c.getInfo();
                 //Skip the jail subcommand instance, since it is unique
-                if(i.pattern().equalsIgnoreCase("jail|j")) {
-                    hasJailPermission = sender.hasPermission(i.permission());
-                    continue;
-                }
+                if(c == jail) continue;
                 
                 //Skip if the command requires a player and the sender isn't a player
                 if(i.needsPlayer() && !(sender instanceof Player)) continue;
@@ -78,36 +76,24 @@ public class JailHandler {
                 //If the sender has permission to the command
                 //and the first argument (sub command) is empty OR
                 //the first argument matches the command or starts with the string
-                if(sender.hasPermission(i.permission()) && (arg0.isEmpty() || (arg0.toLowerCase().matches(i.pattern()) || i.pattern().startsWith(arg0)))) {
-                    results.add(i.pattern().split("\\|")[0]);
+                if(sender.hasPermission(i.permission()) && (arg0.isEmpty() || c.matches(arg0) || i.pattern().startsWith(arg0))) {
+                    results.add(c.getName());
                 }
             }
             
-            //Sort the results before adding the player names
-            Collections.sort(results);
-            
             //If the results doesn't contain anything and they have permission to jail someone
             //then send let the jail command provide the tab completion
             if(results.isEmpty() && hasJailPermission)
-                return getMatches("jail").get(0).provideTabCompletions(jm, sender, args);
+                return jail.getCommand().provideTabCompletions(jm, sender, args);
             else
                 return results;
         }else {
-            String arg0 = args[0].toLowerCase();
-            boolean hasJailPermission = false;
-            
-            for(Command c : commands.values()) {
-                CommandInfo i = c.getClass().getAnnotation(CommandInfo.class);
+            for(CommandTable.Entry c : commands.getMatches(args[0].toLowerCase())) {
+                CommandInfo i = c.getInfo();
                 
                 //since the pattern won't ever match the jail plugin
-                //we can skip it but first we need to see if they have
-                //permission to do the jailing
-                if(i.pattern().equalsIgnoreCase("jail|j")) {
-                    hasJailPermission = sender.hasPermission(i.permission());
-                    continue;
-                }
-                
-                if(!arg0.toLowerCase().matches(i.pattern())) continue;
+                //we can skip it, the permission was checked above
+                if(c == jail) continue;
                 
                 //Sender provided too many arguments which means there
                 //is nothing to tab complete
@@ -119,14 +105,14 @@ public class JailHandler {
                 //If the sender doesn't have permission, we won't send them further
                 if(!sender.hasPermission(i.permission())) continue;
                 
-                return c.provideTabCompletions(jm, sender, args);
+                return c.getCommand().provideTabCompletions(jm, sender, args);
             }
             
             //By the time it has reached here no other command matched
             //which means they are probably jailing someone, or trying to
             //so let's check permission first and go from there.
             if(hasJailPermission)
-                return getMatches("jail").get(0).provideTabCompletions(jm, sender, args);
+                return jail.getCommand().provideTabCompletions(jm, sender, args);
         }
         
         return Collections.emptyList();
@@ -151,25 +137,25 @@ public class JailHandler {
      * @param args The arguments passed to the command.
      */
     public boolean parseCommand(JailManager jailmanager, CommandSender sender, String[] args) {
-        Command c = null;
+        CommandTable.Entry c = null;
 
         //If they didn't provide any arguments (aka just: /jail) then we will need to send them some help
         if(args.length == 0) {
             //TODO: Create the help page(s)
-            c = getMatches("jail").get(0);
+            c = commands.get("jail");
 
         }else {
             //Get the matches from the first argument passed
-            List<Command> matches = getMatches(args[0].toLowerCase());
+            List<CommandTable.Entry> matches = commands.getMatches(args[0].toLowerCase());
 
             if(matches.isEmpty()) {
                 //No matches found, thus it is more likely than not they are trying to jail someone
-                c = getMatches("jail").get(0);
+                c = commands.get("jail");
 
             } else if(matches.size() > 1) {
                 //If there was found more than one match
                 //then let's send the usage of each match to the sender
-                for(Command cmd : matches)
+                for(CommandTable.Entry cmd : matches)
                     showUsage(sender, cmd);
                 return true;
 
@@ -179,7 +165,7 @@ public class JailHandler {
             }
         }
 
-        CommandInfo i = c.getClass().getAnnotation(CommandInfo.class);
+        CommandInfo i = c.getInfo();
 
         // First, let's check if the sender has permission for the command.
         if(!i.permission().isEmpty() && !sender.hasPermission(i.permission())) {
@@ -214,7 +200,7 @@ public class JailHandler {
         // Since everything has been checked and we're all clear, let's execute it.
         // But if get back false, let's show the usage message.
         try {
-            if(!c.execute(jailmanager, sender, args)) {
+            if(!c.getCommand().execute(jailmanager, sender, args)) {
                 showUsage(sender, c);
                 return true;
             }else {
@@ -231,26 +217,14 @@ public class JailHandler {
         }
     }
 
-    private List<Command> getMatches(String command) {
-        List<Command> result = new ArrayList<Command>();
-
-        for(Entry<String, Command> entry : commands.entrySet()) {
-            if(command.matches(entry.getKey())) {
-                result.add(entry.getValue());
-            }
-        }
-
-        return result;
-    }
-
     /**
      * Shows the usage information to the sender, if they have permission.
      * 
      * @param sender The sender of the command
      * @param command The command to send usage of.
      */
-    private void showUsage(CommandSender sender, Command command) {
-        CommandInfo info = command.getClass().getAnnotation(CommandInfo.class);
+    private void showUsage(CommandSender sender, CommandTable.Entry command) {
+        CommandInfo info = command.getInfo();
         if(!sender.hasPermission(info.permission())) return;
 
         sender.sendMessage(info.usage());
@@ -287,13 +261,6 @@ public class JailHandler {
     }
 
     private void load(Class<? extends Command> c) {
-        CommandInfo info = c.getAnnotation(CommandInfo.class);
-        if(info == null) return;
-
-        try {
-            commands.put(info.pattern(), c.newInstance());
-        }catch(Exception e) {
-            e.printStackTrace();
-        }
+        commands.register(c);
     }
 }
@@ -0,0 +1,103 @@
+package com.graywolf336.jail.command;
+
+import java.util.List;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.enums.Lang;
+
+/**
+ * Sends long lists to a sender, a page at a time to players and in chunks over a few ticks to everyone else.
+ *
+ * <p>
+ *
+ * Only the lines which are actually sent get rendered, so asking for the first page of a
+ * jail with thousands of prisoners doesn't build a line for every one of them.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class PagedMessages {
+    /** The amount of lines on a page sent to a player. */
+    public static final int PAGE_SIZE = 10;
+    /** The amount of lines sent each tick to anything which isn't a player, like the console. */
+    public static final int CHUNK_SIZE = 100;
+
+    /**
+     * Gets the amount of pages it takes to show the given amount of lines.
+     *
+     * @param lines the amount of lines
+     * @param size the amount of lines on each page
+     * @return the amount of pages, at least one
+     */
+    public static int getPageCount(int lines, int size) {
+        return Math.max(1, (lines + size - 1) / size);
+    }
+
+    /**
+     * Sends the items to the sender.
+     *
+     * <p>
+     *
+     * Players get the requested page followed by which page it is, anything else gets
+     * every item sent {@link #CHUNK_SIZE} lines per tick unless they asked for a page.
+     *
+     * @param pl the plugin's instance, for scheduling the chunks
+     * @param sender who to send the lines to
+     * @param items to send, this list shouldn't be changed while it is being sent
+     * @param page the page to send, starting at one, or zero if none was asked for
+     * @param renderer which turns an item into its line
+     * @param footer the line sent after all the items, null for none
+     */
+    public static <T> void send(JailMain pl, CommandSender sender, List<T> items, int page, LineRenderer<T> renderer, String footer) {
+        if(page <= 0 && !(sender instanceof Player)) {
+            sendChunk(pl, sender, items, 0, renderer, footer);
+            return;
+        }
+
+        int pages = getPageCount(items.size(), PAGE_SIZE);
+        page = Math.min(Math.max(page, 1), pages);
+
+        int end = Math.min(page * PAGE_SIZE, items.size());
+        for(int i = (page - 1) * PAGE_SIZE; i < end; i++)
+            sender.sendMessage(renderer.render(items.get(i)));
+
+        if(pages > 1) sender.sendMessage(Lang.LISTPAGE.get(new String[] { String.valueOf(page), String.valueOf(pages) }));
+        if(footer != null) sender.sendMessage(footer);
+    }
+
+    private static <T> void sendChunk(final JailMain pl, final CommandSender sender, final List<T> items, final int start, final LineRenderer<T> renderer, final String footer) {
+        int end = Math.min(start + CHUNK_SIZE, items.size());
+        String[] lines = new String[end - start];
+
+        for(int i = start; i < end; i++)
+            lines[i - start] = renderer.render(items.get(i));
+
+        sender.sendMessage(lines);
+
+        if(end < items.size()) {
+            final int next = end;
+            pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
+                public void run() {
+                    sendChunk(pl, sender, items, next, renderer, footer);
+                }
+            }, 1L);
+        }else if(footer != null) {
+            sender.sendMessage(footer);
+        }
+    }
+
+    /** Turns an item of a list into the line which is sent for it. */
+    public interface LineRenderer<T> {
+        /**
+         * Renders the line for the given item.
+         *
+         * @param item to render
+         * @return the line to send
+         */
+        public String render(T item);
+    }
+}
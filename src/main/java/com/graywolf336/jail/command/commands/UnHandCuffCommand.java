@@ -1,13 +1,11 @@
 package com.graywolf336.jail.command.commands;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.command.Command;
 import com.graywolf336.jail.command.CommandInfo;
@@ -39,16 +37,14 @@ public class UnHandCuffCommand implements Command {
         return true;
     }
 
-    public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
-        List<String> results = new ArrayList<String>();
-        
-        for(Player p : jm.getPlugin().getServer().getOnlinePlayers())
-            if(jm.getPlugin().getHandCuffManager().isHandCuffed(p.getUniqueId())) //don't send someone who isn't already handcuffed
-                if(args[0].isEmpty() || StringUtil.startsWithIgnoreCase(p.getName(), args[0]))
-                    results.add(p.getName());
-        
-        Collections.sort(results);
-        
-        return results;
+    public List<String> provideTabCompletions(final JailManager jm, CommandSender sender, String... args) throws Exception {
+        return jm.getOnlinePlayersByPrefix(args[0], new CompletionIndex.Filter() {
+            public boolean accept(String name) {
+                Player p = jm.getPlugin().getServer().getPlayerExact(name);
+                
+                //don't send someone who isn't already handcuffed
+                return p != null && jm.getPlugin().getHandCuffManager().isHandCuffed(p.getUniqueId());
+            }
+        });
     }
 }
@@ -1,13 +1,10 @@
 package com.graywolf336.jail.command.commands;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.beans.Jail;
@@ -69,14 +66,6 @@ public class UnJailCommand implements Command {
     }
 
     public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
-        List<String> results = new ArrayList<String>();
-        
-        for(Prisoner p : jm.getAllPrisoners().values())
-            if(args[0].isEmpty() || StringUtil.startsWithIgnoreCase(p.getLastKnownName(), args[0]))
-                results.add(p.getLastKnownName());
-        
-        Collections.sort(results);
-        
-        return results;
+        return jm.getPrisonersByPrefix(args[0], null);
     }
 }
@@ -1,14 +1,12 @@
 package com.graywolf336.jail.command.subcommands;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.beans.Prisoner;
 import com.graywolf336.jail.command.Command;
@@ -43,23 +41,13 @@ public class JailCheckCommand implements Command {
     }
 
     public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
-        List<String> results = new ArrayList<String>();
+        String prefix = args.length == 2 ? args[1] : "";
+        List<String> results = new ArrayList<String>(jm.getPrisonersByPrefix(prefix, null));
         
-        for(Prisoner p : jm.getAllPrisoners().values()) {
-            if(args.length == 2 && StringUtil.startsWithIgnoreCase(p.getLastKnownName(), args[1].toLowerCase())) {
-                results.add(p.getLastKnownName());
-            }else {
-                results.add(p.getLastKnownName());
-            }
-        }
-        
-        Collections.sort(results);
-        
-        if(args.length == 2)
-            for(Player p : jm.getPlugin().getServer().getOnlinePlayers())
-                if(args[1].isEmpty() || StringUtil.startsWithIgnoreCase(p.getName(), args[1]))
-                    if(!results.contains(p.getName()))
-                        results.add(p.getName());
+        if(args.length == 2 && results.size() < CompletionIndex.MAX_RESULTS)
+            for(String name : jm.getOnlinePlayersByPrefix(prefix, null))
+                if(results.size() < CompletionIndex.MAX_RESULTS && !results.contains(name))
+                    results.add(name);
         
         return results;
     }
@@ -1,15 +1,11 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.command.CommandSender;
-import org.bukkit.util.StringUtil;
 
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.beans.ConfirmPlayer;
-import com.graywolf336.jail.beans.Jail;
 import com.graywolf336.jail.command.Command;
 import com.graywolf336.jail.command.CommandInfo;
 import com.graywolf336.jail.enums.Confirmation;
@@ -46,19 +42,13 @@ public class JailClearCommand implements Command {
     }
 
     public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
-        List<String> results = new ArrayList<String>();
-        
-        for(Jail j : jm.getJails()) {
-            if((args.length == 2 && StringUtil.startsWithIgnoreCase(j.getName(), args[1]))
-                    || (args.length == 3 && StringUtil.startsWithIgnoreCase(j.getName(), args[2]))) {
-                results.add(j.getName());
-            }else {
-                results.add(j.getName());
-            }
+        switch(args.length) {
+            case 2:
+                return jm.getJailsByPrefix(args[1]);
+            case 3:
+                return jm.getJailsByPrefix(args[2]);
+            default:
+                return jm.getJailsByPrefix("");
         }
-        
-        Collections.sort(results);
-        
-        return results;
     }
 }
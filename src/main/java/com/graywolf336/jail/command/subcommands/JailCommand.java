@@ -1,6 +1,5 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -10,8 +9,8 @@ import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.Util;
 import com.graywolf336.jail.beans.Cell;
@@ -309,29 +308,29 @@ public class JailCommand implements Command {
         return Collections.emptyList();
     }
     
-    private List<String> getPlayers(JailManager jm, String first) {
-        List<String> results = new ArrayList<String>();
-        
-        for(Player p : jm.getPlugin().getServer().getOnlinePlayers())
-            if(first.isEmpty() || StringUtil.startsWithIgnoreCase(p.getName(), first))
-                if(!jm.isPlayerJailed(p.getUniqueId()) && !p.hasPermission(noJailPermission)) //don't send back them if they're already jailed or can't be jailed
-                    results.add(p.getName());
+    private List<String> getPlayers(final JailManager jm, String first) {
+        List<String> results = jm.getOnlinePlayersByPrefix(first, new CompletionIndex.Filter() {
+            public boolean accept(String name) {
+                Player p = jm.getPlugin().getServer().getPlayerExact(name);
+                
+                //don't send back them if they're already jailed or can't be jailed
+                return p != null && !jm.isPlayerJailed(p.getUniqueId()) && !p.hasPermission(noJailPermission);
+            }
+        });
         
-        Collections.sort(results);
         jm.getPlugin().debug("The list we're returning is: " + Util.getStringFromList(", ", results));
         
         return results;
     }
     
     private List<String> getCells(JailManager jm, String jail, String cell) {
-        List<String> results = new ArrayList<String>();
-        
-        for(Cell c : jm.getJail(jail).getCells())
-            if(!c.hasPrisoner() && (cell.isEmpty() || StringUtil.startsWithIgnoreCase(c.getName(), cell)))
-            	results.add(c.getName());
+        final Jail j = jm.getJail(jail);
         
-        Collections.sort(results);
-        
-        return results;
+        return j.getCellsByPrefix(cell, new CompletionIndex.Filter() {
+            public boolean accept(String name) {
+                Cell c = j.getCell(name);
+                return c != null && !c.hasPrisoner();
+            }
+        });
     }
 }
@@ -33,7 +33,7 @@ public class JailConfirmCommand implements Command{
                         //Copy the original arguments for easy access
                         String[] cArgs = jm.getOriginalArgs(sender.getName());
                         //Clear a jail if the args length is two, else send null
-                        String msg = jm.clearJailOfPrisoners(cArgs.length == 2 ? cArgs[1] : null);
+                        String msg = jm.clearJailOfPrisoners(cArgs.length == 2 ? cArgs[1] : null, sender);
                         //Send the message we got back
                         sender.sendMessage(msg);
                         //Remove them from confirming so they can't do it again
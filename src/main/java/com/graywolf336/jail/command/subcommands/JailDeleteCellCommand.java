@@ -1,16 +1,12 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.command.CommandSender;
-import org.bukkit.util.StringUtil;
 
 import com.graywolf336.jail.JailManager;
-import com.graywolf336.jail.beans.Cell;
 import com.graywolf336.jail.beans.ConfirmPlayer;
-import com.graywolf336.jail.beans.Jail;
 import com.graywolf336.jail.command.Command;
 import com.graywolf336.jail.command.CommandInfo;
 import com.graywolf336.jail.enums.Confirmation;
@@ -37,28 +33,17 @@ public class JailDeleteCellCommand implements Command {
     }
 
     public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
-        List<String> results = new ArrayList<String>();
-        
         switch(args.length) {
             case 1:
-                results.addAll(jm.getJailsByPrefix(""));
-                break;
+                return jm.getJailsByPrefix("");
             case 2:
-                results = jm.getJailsByPrefix(args[1]);
-                break;
+                return jm.getJailsByPrefix(args[1]);
             case 3:
-                if(jm.isValidJail(args[1])) {
-                    Jail j = jm.getJail(args[1]);
-                    
-                    for(Cell c : j.getCells())
-                        if(args[2].isEmpty() || StringUtil.startsWithIgnoreCase(c.getName(), args[2]))
-                            results.add(c.getName());
-                }
+                if(jm.isValidJail(args[1]))
+                    return jm.getJail(args[1]).getCellsByPrefix(args[2], null);
                 break;
         }
         
-        Collections.sort(results);
-        
-        return results;
+        return Collections.emptyList();
     }
 }
@@ -2,44 +2,71 @@ package com.graywolf336.jail.command.subcommands;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
 import com.graywolf336.jail.JailManager;
-import com.graywolf336.jail.Util;
 import com.graywolf336.jail.beans.Cell;
 import com.graywolf336.jail.beans.Jail;
+import com.graywolf336.jail.beans.Prisoner;
 import com.graywolf336.jail.command.Command;
 import com.graywolf336.jail.command.CommandInfo;
+import com.graywolf336.jail.command.PagedMessages;
 import com.graywolf336.jail.enums.Lang;
 
 @CommandInfo(
-        maxArgs = 1,
+        maxArgs = 4,
         minimumArgs = 1,
         needsPlayer = false,
         pattern = "listcells|lc",
         permission = "jail.command.jaillistcells",
-        usage = "/jail listcells [jail]"
+        usage = "/jail listcells [jail] (page) (-f text)"
         )
 public class JailListCellsCommand implements Command {
+    private HashMap<String, SortedCells> views = new HashMap<String, SortedCells>();
+
     public boolean execute(JailManager jm, CommandSender sender, String... args) {
+        int page = 0;
+        String filter = null;
+
+        for(int i = 2; i < args.length; i++) {
+            if(args[i].equalsIgnoreCase("-f") && i + 1 < args.length) {
+                filter = args[++i].toLowerCase();
+            }else {
+                try {
+                    page = Integer.parseInt(args[i]);
+                }catch(NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+
         sender.sendMessage(ChatColor.AQUA + "----------Cells----------");
+        String footer = ChatColor.AQUA + "-------------------------";
 
         if(!jm.getJails().isEmpty()) {
+            this.pruneViews(jm);
+
             if(jm.getJail(args[1]) != null) {
                 Jail j = jm.getJail(args[1]);
+                List<Cell> cells = filter(getSorted(j), filter);
 
-                List<String> cells = new ArrayList<String>();
-                
-                for(Cell c : j.getCells()) {
-                    cells.add(c.getName() + (c.getPrisoner() == null ? "" : " (" + c.getPrisoner().getLastKnownName() + ")"));
+                if(cells.isEmpty()) {
+                    sender.sendMessage(Lang.NOCELLS.get(j.getName()));
+                }else {
+                    PagedMessages.send(jm.getPlugin(), sender, cells, page, new PagedMessages.LineRenderer<Cell>() {
+                        public String render(Cell c) {
+                            Prisoner p = c.getPrisoner();
+                            return ChatColor.GREEN + " " + c.getName() + (p == null ? "" : " (" + p.getLastKnownName() + ")");
+                        }
+                    }, footer);
+                    return true;
                 }
-                
-                Collections.sort(cells);
-                
-                sender.sendMessage(cells.isEmpty() ? Lang.NOCELLS.get(j.getName()) : ChatColor.GREEN + Util.getStringFromList(", ", cells));
             }else {
                 sender.sendMessage(Lang.NOJAIL.get(args[1]));
             }
@@ -47,11 +74,65 @@ public class JailListCellsCommand implements Command {
             sender.sendMessage(Lang.NOJAILS.get());
         }
 
-        sender.sendMessage(ChatColor.AQUA + "-------------------------");
+        sender.sendMessage(footer);
         return true;
     }
 
     public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
         return jm.getJailsByPrefix(args.length == 2 ? args[1] : "");
     }
+
+    /** Gets the cells of the jail sorted by their name, only sorting them again when the jail has changed. */
+    private List<Cell> getSorted(Jail j) {
+        String key = j.getName().toLowerCase();
+        SortedCells view = this.views.get(key);
+
+        if(view == null || view.jail != j || view.version != j.getVersion()) {
+            List<Cell> cells = new ArrayList<Cell>(j.getCells());
+            Collections.sort(cells, new Comparator<Cell>() {
+                public int compare(Cell a, Cell b) {
+                    return a.getName().compareToIgnoreCase(b.getName());
+                }
+            });
+
+            view = new SortedCells(j, Collections.unmodifiableList(cells));
+            this.views.put(key, view);
+        }
+
+        return view.cells;
+    }
+
+    /** Forgets the sorted cells of the jails which have been deleted since. */
+    private void pruneViews(JailManager jm) {
+        Iterator<SortedCells> it = this.views.values().iterator();
+        while(it.hasNext()) {
+            Jail j = it.next().jail;
+            if(jm.getJail(j.getName()) != j) it.remove();
+        }
+    }
+
+    /** Gets the cells whose name, or prisoner's name, contains the filter. */
+    private List<Cell> filter(List<Cell> cells, String filter) {
+        if(filter == null) return cells;
+
+        List<Cell> results = new ArrayList<Cell>();
+        for(Cell c : cells)
+            if(c.getName().toLowerCase().contains(filter) || (c.hasPrisoner() && c.getPrisoner().getLastKnownName().toLowerCase().contains(filter)))
+                results.add(c);
+
+        return results;
+    }
+
+    /** The cells of a jail sorted by name, along with the jail and its version they were sorted at. */
+    private static class SortedCells {
+        private Jail jail;
+        private int version;
+        private List<Cell> cells;
+
+        private SortedCells(Jail jail, List<Cell> cells) {
+            this.jail = jail;
+            this.version = jail.getVersion();
+            this.cells = cells;
+        }
+    }
 }
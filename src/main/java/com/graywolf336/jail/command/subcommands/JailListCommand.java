@@ -1,6 +1,10 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 
 import org.bukkit.ChatColor;
@@ -11,31 +15,80 @@ import com.graywolf336.jail.beans.Jail;
 import com.graywolf336.jail.beans.Prisoner;
 import com.graywolf336.jail.command.Command;
 import com.graywolf336.jail.command.CommandInfo;
+import com.graywolf336.jail.command.PagedMessages;
 import com.graywolf336.jail.enums.Lang;
 
 @CommandInfo(
-        maxArgs = 1,
+        maxArgs = 6,
         minimumArgs = 0,
         needsPlayer = false,
         pattern = "list|l",
         permission = "jail.command.jaillist",
-        usage = "/jail list (jail)"
+        usage = "/jail list (jail) (page) (-s name|time|jailer) (-f text)"
         )
 public class JailListCommand implements Command {
+    /** How long, in milliseconds, a sorted list of prisoners is used before it is sorted again even if the jail didn't change. */
+    private static final long VIEW_AGE = 30000L;
+
+    private HashMap<String, SortedView> views = new HashMap<String, SortedView>();
+
     public boolean execute(JailManager jm, CommandSender sender, String... args) {
-        sender.sendMessage(ChatColor.AQUA + "----------" + (args.length == 1 ? "Jails" : "Prisoners") + "----------");
+        int page = 0;
+        String sort = "name", filter = null;
+        boolean listJails = args.length == 1;
+
+        //A number instead of a jail's name is the page of the jails, unless there is a jail by that name
+        if(args.length == 2 && jm.getJail(args[1]) == null) {
+            try {
+                page = Integer.parseInt(args[1]);
+                listJails = true;
+            }catch(NumberFormatException e) {
+                //Not a number, so we tell them there's no jail by that name below
+            }
+        }
+
+        //Read the options after the jail's name, anything we don't know shows the usage
+        for(int i = 2; i < args.length; i++) {
+            if(args[i].equalsIgnoreCase("-s") && i + 1 < args.length) {
+                sort = args[++i].toLowerCase();
+                if(getComparator(sort) == null) return false;
+            }else if(args[i].equalsIgnoreCase("-f") && i + 1 < args.length) {
+                filter = args[++i].toLowerCase();
+            }else {
+                try {
+                    page = Integer.parseInt(args[i]);
+                }catch(NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+
+        sender.sendMessage(ChatColor.AQUA + "----------" + (listJails ? "Jails" : "Prisoners") + "----------");
+        String footer = ChatColor.AQUA + "-------------------------";
 
         //Check if there are any jails
         if(jm.getJails().isEmpty()) {
             sender.sendMessage(" " + Lang.NOJAILS.get());
         }else {
+            this.pruneViews(jm);
+
             //Check if they have provided a jail to list or not
-            if(args.length == 1) {
+            if(listJails) {
                 //No jail provided, so give them a list of the jails
-                for(Jail j : jm.getJails()) {
-                    if(j.isEnabled()) sender.sendMessage(ChatColor.BLUE + "    " + j.getName() + " (" + j.getAllPrisoners().size() + ")");
-                    else sender.sendMessage(ChatColor.RED + "    " + j.getName() + " (" + j.getAllPrisoners().size() + ") - WORLD UNLOADED");
-                }
+                List<Jail> jails = new ArrayList<Jail>(jm.getJails());
+                Collections.sort(jails, new Comparator<Jail>() {
+                    public int compare(Jail a, Jail b) {
+                        return a.getName().compareToIgnoreCase(b.getName());
+                    }
+                });
+
+                PagedMessages.send(jm.getPlugin(), sender, jails, page, new PagedMessages.LineRenderer<Jail>() {
+                    public String render(Jail j) {
+                        if(j.isEnabled()) return ChatColor.BLUE + "    " + j.getName() + " (" + j.getAllPrisoners().size() + ")";
+                        else return ChatColor.RED + "    " + j.getName() + " (" + j.getAllPrisoners().size() + ") - WORLD UNLOADED";
+                    }
+                }, footer);
+                return true;
             }else {
                 Jail j = jm.getJail(args[1]);
 
@@ -43,27 +96,121 @@ public class JailListCommand implements Command {
                     //No jail was found
                     sender.sendMessage(" " + Lang.NOJAIL.get(args[1]));
                 }else {
-                    Collection<Prisoner> pris = j.getAllPrisoners().values();
+                    List<Prisoner> pris = filter(getSorted(j, sort), filter);
 
                     if(pris.isEmpty()) {
                         //If there are no prisoners, then send that message
                         sender.sendMessage(" " + Lang.NOPRISONERS.get(j.getName()));
                     }else {
-                        for(Prisoner p : pris) {
-                            //graywolf663: Being gray's evil twin; CONSOLE (10)
-                            //prisoner: reason; jailer (time in minutes)
-                            sender.sendMessage(ChatColor.BLUE + " " + p.getLastKnownName() + ": " + p.getReason() + "; " + p.getJailer() + " (" + p.getRemainingTimeInMinutes() + " mins)");
-                        }
+                        //The footer is sent once the last of the lines has been, which for the console can be a few ticks later
+                        PagedMessages.send(jm.getPlugin(), sender, pris, page, new PagedMessages.LineRenderer<Prisoner>() {
+                            public String render(Prisoner p) {
+                                //graywolf663: Being gray's evil twin; CONSOLE (10)
+                                //prisoner: reason; jailer (time in minutes)
+                                return ChatColor.BLUE + " " + p.getLastKnownName() + ": " + p.getReason() + "; " + p.getJailer() + " (" + p.getRemainingTimeInMinutes() + " mins)";
+                            }
+                        }, footer);
+                        return true;
                     }
                 }
             }
         }
 
-        sender.sendMessage(ChatColor.AQUA + "-------------------------");
+        sender.sendMessage(footer);
         return true;
     }
 
     public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
         return jm.getJailsByPrefix(args.length == 2 ? args[1] : "");
     }
+
+    /** Gets the prisoners of the jail in the given order, only sorting them again when the jail has changed. */
+    private List<Prisoner> getSorted(Jail j, String sort) {
+        String key = j.getName().toLowerCase() + ":" + sort;
+        SortedView view = this.views.get(key);
+        long now = System.currentTimeMillis();
+
+        if(view == null || view.jail != j || view.version != j.getVersion() || now - view.built > VIEW_AGE) {
+            List<Prisoner> prisoners = new ArrayList<Prisoner>(j.getAllPrisoners().values());
+            Collections.sort(prisoners, getComparator(sort));
+
+            view = new SortedView(j, now, Collections.unmodifiableList(prisoners));
+            this.views.put(key, view);
+        }
+
+        return view.prisoners;
+    }
+
+    /** Forgets the sorted prisoners of the jails which have been deleted since. */
+    private void pruneViews(JailManager jm) {
+        Iterator<SortedView> it = this.views.values().iterator();
+        while(it.hasNext()) {
+            Jail j = it.next().jail;
+            if(jm.getJail(j.getName()) != j) it.remove();
+        }
+    }
+
+    /** Gets the prisoners whose name, reason, or jailer contains the filter. */
+    private List<Prisoner> filter(List<Prisoner> prisoners, String filter) {
+        if(filter == null) return prisoners;
+
+        List<Prisoner> results = new ArrayList<Prisoner>();
+        for(Prisoner p : prisoners)
+            if(contains(p.getLastKnownName(), filter) || contains(p.getReason(), filter) || contains(p.getJailer(), filter))
+                results.add(p);
+
+        return results;
+    }
+
+    private static boolean contains(String value, String filter) {
+        return value != null && value.toLowerCase().contains(filter);
+    }
+
+    private static int compareText(String a, String b) {
+        return String.CASE_INSENSITIVE_ORDER.compare(a == null ? "" : a, b == null ? "" : b);
+    }
+
+    private static Comparator<Prisoner> getComparator(String sort) {
+        switch(sort) {
+            case "name":
+                return new Comparator<Prisoner>() {
+                    public int compare(Prisoner a, Prisoner b) {
+                        return compareText(a.getLastKnownName(), b.getLastKnownName());
+                    }
+                };
+            case "time":
+                //Least time left first, with the ones jailed forever at the end
+                return new Comparator<Prisoner>() {
+                    public int compare(Prisoner a, Prisoner b) {
+                        long x = a.getRemainingTime() < 0 ? Long.MAX_VALUE : a.getRemainingTime();
+                        long y = b.getRemainingTime() < 0 ? Long.MAX_VALUE : b.getRemainingTime();
+                        return x < y ? -1 : (x == y ? 0 : 1);
+                    }
+                };
+            case "jailer":
+                return new Comparator<Prisoner>() {
+                    public int compare(Prisoner a, Prisoner b) {
+                        int c = compareText(a.getJailer(), b.getJailer());
+                        return c != 0 ? c : compareText(a.getLastKnownName(), b.getLastKnownName());
+                    }
+                };
+            default:
+                return null;
+        }
+    }
+
+    /** The prisoners of a jail in a sorted order, along with the jail and its version they were sorted at. */
+    private static class SortedView {
+        private Jail jail;
+        private int version;
+        private long built;
+        private List<Prisoner> prisoners;
+
+        private SortedView(Jail jail, long built, List<Prisoner> prisoners) {
+            this.jail = jail;
+            this.version = jail.getVersion();
+            this.built = built;
+            this.prisoners = prisoners;
+        }
+    }
 }
@@ -1,12 +1,9 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.command.Command;
@@ -45,13 +42,7 @@ public class JailMuteCommand implements Command {
     public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
         switch(args.length) {
             case 2:
-                List<String> results = new ArrayList<String>();
-                for(Player p : jm.getPlugin().getServer().getOnlinePlayers())
-                    if(StringUtil.startsWithIgnoreCase(p.getName(), args[1].toLowerCase()))
-                        results.add(p.getName());
-                
-                Collections.sort(results);
-                return results;
+                return jm.getOnlinePlayersByPrefix(args[1], null);
             default:
                 return Collections.emptyList();
         }
@@ -1,6 +1,5 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -8,8 +7,8 @@ import java.util.concurrent.TimeUnit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.beans.Prisoner;
 import com.graywolf336.jail.command.Command;
@@ -177,6 +176,7 @@ public class JailPayCommand implements Command {
                                             long minutes = pm.getMinutesPayingFor(amt);
                                             pm.pay((Player) sender, amt);
                                             long remain = p.subtractTime(TimeUnit.MILLISECONDS.convert(minutes, TimeUnit.MINUTES));
+                                            jm.getPlugin().getJailTimer().reschedule(p);
                                             sender.sendMessage(Lang.PAYPAIDLOWEREDTIMEELSE.get(new String[] { String.valueOf(amt), p.getLastKnownName(), String.valueOf(TimeUnit.MINUTES.convert(remain, TimeUnit.MILLISECONDS)) }));
                                         }
                                     }else {
@@ -211,20 +211,18 @@ public class JailPayCommand implements Command {
         return true;
     }
 
-    public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
+    public List<String> provideTabCompletions(final JailManager jm, CommandSender sender, String... args) throws Exception {
         if(jm.getPlugin().getConfig().getBoolean(Settings.JAILPAYENABLED.getPath())) {
             switch(args.length) {
                 case 3:
-                    List<String> results = new ArrayList<String>();
-                    for(Prisoner p : jm.getAllPrisoners().values())
-                        if(!p.isOfflinePending()) //Don't list if they're offline pending
-                            if(p.getRemainingTime() != -1) //Don't list if they're jailed forever
-                                if(StringUtil.startsWithIgnoreCase(p.getLastKnownName(), args[2]))
-                                    results.add(p.getLastKnownName());
-                    
-                    Collections.sort(results);
-                    
-                    return results;
+                    return jm.getPrisonersByPrefix(args[2], new CompletionIndex.Filter() {
+                        public boolean accept(String name) {
+                            Prisoner p = jm.getPrisonerByLastKnownName(name);
+                            
+                            //Don't list if they're offline pending or jailed forever
+                            return p != null && !p.isOfflinePending() && p.getRemainingTime() != -1;
+                        }
+                    });
                 default:
                     break;
             }
@@ -8,7 +8,6 @@ import org.bukkit.command.CommandSender;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.command.Command;
 import com.graywolf336.jail.command.CommandInfo;
-import com.graywolf336.jail.enums.Lang;
 
 @CommandInfo(
         maxArgs = 2,
@@ -19,23 +18,11 @@ import com.graywolf336.jail.enums.Lang;
         usage = "/jail record [name] (display)"
         )
 public class JailRecordCommand implements Command {
-    @SuppressWarnings("deprecation")
     public boolean execute(JailManager jm, CommandSender sender, String... args) {
-        if(args.length == 2) {
-            // /jail record <username>
-            List<String> entries = jm.getPlugin().getJailIO().getRecordEntries(args[1]);
-
-            sender.sendMessage(Lang.RECORDTIMESJAILED.get(new String[] { args[1], String.valueOf(entries.size()) }));
-        }else if(args.length == 3) {
-            // /jail record <username> something
-            List<String> entries = jm.getPlugin().getJailIO().getRecordEntries(args[1]);
-
-            //Send all the record entries
-            for(String s : entries) {
-                sender.sendMessage(s);
-            }
-
-            sender.sendMessage(Lang.RECORDTIMESJAILED.get(new String[] { args[1], String.valueOf(entries.size()) }));
+        if(args.length == 2 || args.length == 3) {
+            // /jail record <username> (something)
+            //The lookup happens off of the main thread and sends the results once it is done
+            jm.getPlugin().getRecordLookupManager().lookup(sender, args[1], args.length == 3);
         }else {
             //They didn't do the command right
             //send them back to get the usage
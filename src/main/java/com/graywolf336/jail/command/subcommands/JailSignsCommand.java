@@ -9,6 +9,7 @@ import java.util.Map.Entry;
 import org.bukkit.command.CommandSender;
 import org.bukkit.util.StringUtil;
 
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.Util;
 import com.graywolf336.jail.beans.Cell;
@@ -113,7 +114,7 @@ public class JailSignsCommand implements Command {
             return false;
     }
 
-    public List<String> provideTabCompletions(JailManager jm, CommandSender sender, String... args) throws Exception {
+    public List<String> provideTabCompletions(JailManager jm, CommandSender sender, final String... args) throws Exception {
         List<String> results = new ArrayList<String>();
 
         switch(args.length) {
@@ -123,13 +124,14 @@ public class JailSignsCommand implements Command {
                         results.add(s);
                 break;
             case 3:
-                results.addAll(jm.getJailsByPrefix(args[2]));
-                break;
+                return jm.getJailsByPrefix(args[2]);
             default:
                 if(jm.isValidJail(args[2]))
-                    for(Cell c : jm.getJail(args[2]).getCells())
-                        if(!Util.isStringInsideArray(c.getName(), args))
-                            results.add(c.getName());
+                    return jm.getJail(args[2]).getCellsByPrefix("", new CompletionIndex.Filter() {
+                        public boolean accept(String name) {
+                            return !Util.isStringInsideArray(name, args);
+                        }
+                    });
                 break;
         }
 
@@ -1,12 +1,10 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.beans.Jail;
@@ -63,15 +61,7 @@ public class JailTeleOutCommand implements Command {
             case 2:
                 return jm.getJailsByPrefix(args[1]);
             case 3:
-                List<String> results = new ArrayList<String>();
-                
-                for(Player p : jm.getPlugin().getServer().getOnlinePlayers())
-                    if(args[2].isEmpty() || StringUtil.startsWithIgnoreCase(p.getName(), args[2]))
-                        results.add(p.getName());
-                
-                Collections.sort(results);
-                
-                return results;
+                return jm.getOnlinePlayersByPrefix(args[2], null);
             default:
                 return Collections.emptyList();
         }
@@ -48,6 +48,8 @@ public class JailTimeCommand implements Command {
                         return false;
                     }
 
+                    //Their time could now run out sooner while they're offline
+                    jm.getPlugin().getJailTimer().reschedule(p);
                     sender.sendMessage(Lang.PRISONERSTIME.get(new String[] { p.getLastKnownName(), String.valueOf(p.getRemainingTimeInMinutes()) }));
                     break;
                 default:
@@ -70,10 +72,7 @@ public class JailTimeCommand implements Command {
                         results.add(s);
                 break;
             case 3:
-                for(Prisoner p : jm.getAllPrisoners().values())
-                    if(StringUtil.startsWithIgnoreCase(p.getLastKnownName(), args[2]))
-                        results.add(p.getLastKnownName());
-                break;
+                return jm.getPrisonersByPrefix(args[2], null);
             default:
                 break;
         }
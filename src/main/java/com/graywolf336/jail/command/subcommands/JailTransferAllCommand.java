@@ -2,12 +2,12 @@ package com.graywolf336.jail.command.subcommands;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 
 import org.bukkit.command.CommandSender;
-import org.bukkit.util.StringUtil;
 
+import com.graywolf336.jail.CompletionIndex;
+import com.graywolf336.jail.JailMain;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.beans.Jail;
 import com.graywolf336.jail.beans.Prisoner;
@@ -44,16 +44,30 @@ public class JailTransferAllCommand implements Command {
 
         jm.getPlugin().debug("Sending the transferring off, jail checks all came clean.");
 
-        Jail old = jm.getJail(args[1]);
-        HashSet<Prisoner> oldPrisoners = new HashSet<Prisoner>(old.getAllPrisoners().values());
+        final Jail old = jm.getJail(args[1]);
+        final Jail target = jm.getJail(args[2]);
+        final JailMain pl = jm.getPlugin();
+        List<Runnable> transfers = new ArrayList<Runnable>();
 
-        //Transfer all the prisoners
-        for(Prisoner p : oldPrisoners) {
-            jm.getPlugin().getPrisonerManager().transferPrisoner(old, old.getCellPrisonerIsIn(p.getUUID()), jm.getJail(args[2]), null, p);
+        //Transfer all the prisoners, a few each tick, and then save both jails once they're all done
+        for(final Prisoner p : old.getAllPrisoners().values()) {
+            transfers.add(new Runnable() {
+                public void run() {
+                    //Nothing can be teleported while the plugin is being disabled, they stay where they are
+                    if(!pl.isEnabled()) return;
+
+                    //They could have been released or transferred somewhere else while waiting
+                    if(old.getPrisoner(p.getUUID()) == null) return;
+
+                    pl.getPrisonerManager().transferPrisoner(old, old.getCellPrisonerIsIn(p.getUUID()), target, null, p);
+                    pl.getBatchProcessor().save(old);
+                    pl.getBatchProcessor().save(target);
+                }
+            });
         }
 
         //Send the messages to the sender when completed
-        sender.sendMessage(Lang.TRANSFERALLCOMPLETE.get(new String[] { old.getName(), args[2] }));
+        pl.getBatchProcessor().submit(sender, transfers, Lang.TRANSFERALLCOMPLETE.get(new String[] { old.getName(), target.getName() }));
 
         return true;
     }
@@ -63,15 +77,13 @@ public class JailTransferAllCommand implements Command {
             case 2:
                 return jm.getJailsByPrefix(args[1]);
             case 3:
-                List<String> results = new ArrayList<String>();
-                
-                for(Jail j : jm.getJails())
-                    if(!j.getName().equalsIgnoreCase(args[1]) && (args[2].isEmpty() || StringUtil.startsWithIgnoreCase(j.getName(), args[2])))
-                        results.add(j.getName());
-                
-                Collections.sort(results);
+                final String from = args[1];
                 
-                return results;
+                return jm.getJailsByPrefix(args[2], new CompletionIndex.Filter() {
+                    public boolean accept(String name) {
+                        return !name.equalsIgnoreCase(from);
+                    }
+                });
             default:
                 return Collections.emptyList();
         }
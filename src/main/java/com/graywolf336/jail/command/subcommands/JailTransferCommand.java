@@ -1,6 +1,5 @@
 package com.graywolf336.jail.command.subcommands;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -8,9 +7,8 @@ import java.util.List;
 
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
-import org.bukkit.util.StringUtil;
 
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.JailManager;
 import com.graywolf336.jail.Util;
 import com.graywolf336.jail.beans.Cell;
@@ -178,26 +176,17 @@ public class JailTransferCommand implements Command {
     }
     
     private List<String> getPlayers(JailManager jm, String first) {
-        List<String> results = new ArrayList<String>();
-        
-        for(Player p : jm.getPlugin().getServer().getOnlinePlayers())
-            if(first.isEmpty() || StringUtil.startsWithIgnoreCase(p.getName(), first))
-                results.add(p.getName());
-        
-        Collections.sort(results);
-        
-        return results;
+        return jm.getOnlinePlayersByPrefix(first, null);
     }
     
     private List<String> getCells(JailManager jm, String jail, String cell) {
-        List<String> results = new ArrayList<String>();
+        final Jail j = jm.getJail(jail);
         
-        for(Cell c : jm.getJail(jail).getCells())
-            if(!c.hasPrisoner() && (cell.isEmpty() || StringUtil.startsWithIgnoreCase(c.getName(), cell)))
-            	results.add(c.getName());
-        
-        Collections.sort(results);
-        
-        return results;
+        return j.getCellsByPrefix(cell, new CompletionIndex.Filter() {
+            public boolean accept(String name) {
+                Cell c = j.getCell(name);
+                return c != null && !c.hasPrisoner();
+            }
+        });
     }
 }
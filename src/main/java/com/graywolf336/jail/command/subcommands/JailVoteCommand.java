@@ -112,10 +112,7 @@ public class JailVoteCommand implements Command {
             
             switch(args.length) {
                 case 2:
-                    for(Player p : jm.getPlugin().getServer().getOnlinePlayers())
-                        if(args[1].isEmpty() || StringUtil.startsWithIgnoreCase(p.getName(), args[1]))
-                            results.add(p.getName());
-                    break;
+                    return jm.getOnlinePlayersByPrefix(args[1], null);
                 case 3:
                     for(String s : options)
                         if(args[2].isEmpty() || StringUtil.startsWithIgnoreCase(s, args[2]))
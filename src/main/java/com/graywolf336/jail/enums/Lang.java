@@ -1,8 +1,9 @@
 package com.graywolf336.jail.enums;
 
-import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.YamlConfiguration;
 
+import com.graywolf336.jail.MessageTemplate;
+
 public enum Lang {
     // actions section
     /** Section for when they break a block. */
@@ -133,6 +134,8 @@ public enum Lang {
     // General section, used by different parts
     /** Part message of any messages which require 'all the jails' or such. */
     ALLJAILS("general"),
+    /** The message sent to the sender of a lot of jailings, releases or transfers telling them how far along it is. */
+    BATCHPROGRESS("general"),
     /** The one line on signs when the cell is empty. */
     CELLEMPTYSIGN("general"),
     /** The message sent to the sender whenever they try to remove a cell but was unsuccessful due to a prisoner. */
@@ -157,6 +160,8 @@ public enum Lang {
     JAILSTICKENABLED("general"),
     /** The message sent whenever a player tries to toggle using jail stick but the config has it disabled. */
     JAILSTICKUSAGEDISABLED("general"),
+    /** The message sent after a page of a list, telling which page it is. */
+    LISTPAGE("general"),
     /** Message sent when doing something that requires a cell but the given name of a cell doesn't exist. */
     NOCELL("general"),
     /** Message sent when needing a cell or something and there are no cells. */
@@ -183,6 +188,10 @@ public enum Lang {
     PRISONERSCLEARED("general"),
     /** The format we should use when entering a record into flatfile or showing it. */
     RECORDENTRY("general"),
+    /** The message sent when the sender tries to look up records while their last lookup is still going. */
+    RECORDLOOKUPPENDING("general"),
+    /** The message sent when there are too many record lookups going already. */
+    RECORDLOOKUPSBUSY("general"),
     /** The message format sent saying how many times a user has been jailed. */
     RECORDTIMESJAILED("general"),
     /** The simple word: sign. */
@@ -267,6 +276,7 @@ public enum Lang {
     START("confirm");
 
     private String                   section, name, path;
+    private volatile MessageTemplate template;
     private static YamlConfiguration lang;
 
     Lang(String section) {
@@ -289,6 +299,7 @@ public enum Lang {
      */
     public static void setFile(YamlConfiguration file) {
         lang = file;
+        compileAll();
     }
 
     /** Gets the {@link YamlConfiguration} instance. */
@@ -307,9 +318,19 @@ public enum Lang {
             }
         }
 
+        if(anything) compileAll();
+
         return anything;
     }
 
+    /** Compiles all of the messages from the language file, so we don't have to parse them each time they're sent. */
+    private static void compileAll() {
+        for(Lang l : values()) {
+            String message = lang.getString(l.path);
+            l.template = message == null ? null : MessageTemplate.compile(message);
+        }
+    }
+
     /** Returns the message in the language, no variables are replaced. */
     public String get() {
         return get(new String[] {});
@@ -329,14 +350,10 @@ public enum Lang {
      *         isn't defined in the language file.
      */
     public String get(String... variables) {
-        String message = lang.getString(path);
+        MessageTemplate t = this.template;
 
-        if (message == null) return "";
-
-        for (int i = 0; i < variables.length; i++) {
-            message = message.replaceAll("%" + i + "%", variables[i]);
-        }
+        if (t == null) return "";
 
-        return ChatColor.translateAlternateColorCodes('&', message);
+        return t.render(variables);
     }
 }
@@ -0,0 +1,36 @@
+package com.graywolf336.jail.enums;
+
+/**
+ * The things we protect a jail against, with the setting of their penalty and the name shown to the prisoner.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public enum ProtectionType {
+    BLOCKBREAKING(Settings.BLOCKBREAKPENALTY, Lang.BLOCKBREAKING),
+    BLOCKPLACING(Settings.BLOCKPLACEPENALTY, Lang.BLOCKPLACING),
+    COMMAND(Settings.COMMANDPENALTY, Lang.COMMAND),
+    CROPTRAMPLING(Settings.CROPTRAMPLINGPENALTY, Lang.CROPTRAMPLING),
+    INTERACTIONBLOCKS(Settings.PREVENTINTERACTIONBLOCKSPENALTY, Lang.INTERACTIONBLOCKS),
+    INTERACTIONITEMS(Settings.PREVENTINTERACTIONITEMSPENALTY, Lang.INTERACTIONITEMS),
+    MOVING(Settings.MOVEPENALTY, Lang.MOVING);
+
+    private Settings penalty;
+    private Lang name;
+
+    private ProtectionType(Settings penalty, Lang name) {
+        this.penalty = penalty;
+        this.name = name;
+    }
+
+    /** Gets the setting which holds the penalty time for this protection. */
+    public Settings getPenaltySetting() {
+        return this.penalty;
+    }
+
+    /** Gets the language entry of what we are protecting against. */
+    public Lang getLang() {
+        return this.name;
+    }
+}
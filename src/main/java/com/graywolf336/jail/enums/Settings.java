@@ -6,6 +6,7 @@ public enum Settings {
     AUTOMATICCELL("jailing.jail.automaticCell"),
     AUTOMATICMUTE("jailing.jail.automaticMute"),
     BROADCASTJAILING("jailing.jail.broadcastJailing"),
+    BATCHBUDGET("system.batchBudget"),
     BLOCKBREAKPENALTY("jailing.during.blockBreakPenalty"),
     BLOCKBREAKPROTECTION("jailing.during.blockBreakProtection"),
     BLOCKBREAKWHITELIST("jailing.during.blockBreakWhiteList"),
@@ -14,6 +15,9 @@ public enum Settings {
     BLOCKPLACEWHITELIST("jailing.during.blockPlaceWhiteList"),
     BLOCKBREAKLOGTIMEREDUCTION("jailing.during.blockBreakLogTimeReduction"),
     CELLSIGNLINES("jailing.during.cellsign"),
+    CELLSIGNUPDATEBUDGET("jailing.during.cellsignUpdateBudget"),
+    CHUNKTICKETSENABLED("jails.chunkTickets.enabled"),
+    CHUNKTICKETSMAXCHUNKS("jails.chunkTickets.maxChunks"),
     CLOTHINGENABLED("jailing.jail.clothing.enabled"),
     CLOTHINGHELMET("jailing.jail.clothing.helmet"),
     CLOTHINGCHEST("jailing.jail.clothing.chest"),
@@ -23,6 +27,7 @@ public enum Settings {
     COMMANDSONRELEASE("jailing.release.commands"),
     COMMANDPENALTY("jailing.during.commandPenalty"),
     COMMANDPROTECTION("jailing.during.commandProtection"),
+    COMMANDTIMING("system.commandTiming"),
     COMMANDWHITELIST("jailing.during.commandWhitelist"),
     CONFIGVERSION("system.version"),
     COUNTDOWNTIMEOFFLINE("jailing.during.countDownTimeWhileOffline"),
@@ -61,14 +66,17 @@ public enum Settings {
     PREVENTINTERACTIONBLOCKSPENALTY("jailing.during.preventInteractionBlocksPenalty"),
     PREVENTINTERACTIONITEMS("jailing.during.preventInteractionItems"),
     PREVENTINTERACTIONITEMSPENALTY("jailing.during.preventInteractionItemsPenalty"),
+    PROTECTIONPENALTYWINDOW("jailing.during.protectionPenaltyWindow"),
     PRISONEROPENCHEST("jailing.during.openChest"),
     RECIEVEMESSAGES("jailing.during.recieveMessages"),
     RELEASETOPREVIOUSPOSITION("jailing.release.backToPreviousPosition"),
     RESTOREPREVIOUSGAMEMODE("jailing.release.restorePreviousGameMode"),
     SCOREBOARDENABLED("jailing.during.scoreboard.enabled"),
+    SCOREBOARDLINES("jailing.during.scoreboard.lines"),
     SCOREBOARDTITLE("jailing.during.scoreboard.title"),
     SCOREBOARDTIME("jailing.during.scoreboard.time"),
     TELEPORTONRELEASE("jailing.release.teleport"),
+    TIMECHANGEEVENTPERPRISONER("system.timeChangeEventPerPrisoner"),
     UPDATECHANNEL("system.updates.channel"),
     UPDATENOTIFICATIONS("system.updates.notification"),
     UPDATETIME("system.updates.time"),
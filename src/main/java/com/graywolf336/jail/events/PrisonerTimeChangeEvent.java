@@ -12,9 +12,15 @@ import com.graywolf336.jail.beans.Prisoner;
 /**
  * Event thrown when a prisoner's time changes.
  * 
+ * <p>
+ * 
+ * The time of offline prisoners is changed all at once when their time runs out or they join
+ * again. Cancelling it for them only takes away the last run of the timer from what they served,
+ * the same as cancelling it for a prisoner who is online.
+ * 
  * @author graywolf336
  * @since 3.0.0
- * @version 1.0.0
+ * @version 1.0.2
  */
 public class PrisonerTimeChangeEvent extends Event implements Cancellable {
     private static final HandlerList handlers = new HandlerList();
@@ -36,7 +42,22 @@ public class PrisonerTimeChangeEvent extends Event implements Cancellable {
      * @param after the time after it changed
      */
     public PrisonerTimeChangeEvent(Jail jail, Cell cell, Prisoner prisoner, Player player, long before, long after) {
-        super(true);
+        this(true, jail, cell, prisoner, player, before, after);
+    }
+
+    /**
+     * Creates a new {@link PrisonerTimeChangeEvent prisoner time change event} for the given prisoner.
+     * 
+     * @param async whether the event is thrown off of the main thread
+     * @param jail The jail the prisoner is in.
+     * @param cell The cell the prisoner is in, can be null.
+     * @param prisoner The prisoner's data.
+     * @param player The player being jailed.
+     * @param before the time before it changed
+     * @param after the time after it changed
+     */
+    public PrisonerTimeChangeEvent(boolean async, Jail jail, Cell cell, Prisoner prisoner, Player player, long before, long after) {
+        super(async);
         this.jail = jail;
         this.cell = cell;
         this.prisoner = prisoner;
@@ -0,0 +1,78 @@
+package com.graywolf336.jail.events;
+
+import java.util.UUID;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import com.graywolf336.jail.beans.Cell;
+
+/**
+ * Event thrown once the time of a bunch of prisoners has changed, like every time the jail timer runs.
+ *
+ * <p>
+ *
+ * Unlike the {@link PrisonerTimeChangeEvent} this event isn't thrown for each prisoner, the
+ * changes are all in the same arrays with the same index being the same prisoner. The time
+ * has already changed, so it can't be cancelled or changed.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class PrisonersTimeChangeEvent extends Event {
+    private static final HandlerList handlers = new HandlerList();
+    private UUID[] uuids;
+    private Cell[] cells;
+    private long[] before, after;
+
+    /**
+     * Creates a new {@link PrisonersTimeChangeEvent prisoners time change event} for the given changes.
+     *
+     * @param async whether the event is thrown off of the main thread
+     * @param uuids the uuids of the prisoners whose time changed
+     * @param cells the cells the prisoners are in, with nulls for those who aren't in one
+     * @param before the times before they changed
+     * @param after the times after they changed
+     */
+    public PrisonersTimeChangeEvent(boolean async, UUID[] uuids, Cell[] cells, long[] before, long[] after) {
+        super(async);
+        this.uuids = uuids;
+        this.cells = cells;
+        this.before = before;
+        this.after = after;
+    }
+
+    /** Gets the amount of prisoners whose time changed. */
+    public int getCount() {
+        return this.uuids.length;
+    }
+
+    /** Gets the uuids of the prisoners whose time changed. */
+    public UUID[] getUUIDs() {
+        return this.uuids;
+    }
+
+    /** Gets the cells the prisoners are in, with nulls for those who aren't in one. */
+    public Cell[] getCells() {
+        return this.cells;
+    }
+
+    /** Gets the times the prisoners had before they changed. */
+    public long[] getTimesBeforeChange() {
+        return this.before;
+    }
+
+    /** Gets the times the prisoners have after the change. */
+    public long[] getTimesAfterChange() {
+        return this.after;
+    }
+
+    public static HandlerList getHandlerList() {
+        return handlers;
+    }
+
+    public HandlerList getHandlers() {
+        return handlers;
+    }
+}
@@ -1,5 +1,6 @@
 package com.graywolf336.jail.interfaces;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -101,10 +102,18 @@ public interface ICell {
     /**
      * Updates all the signs this cell has.
      *
-     * @return collection of changes. The <strong>"removed"</strong> entry has all the signs which were removed. The <strong>"updated"</strong> entry has all the signs which got updated.
+     * @return collection of changes. The <strong>"removed"</strong> entry has all the signs which were removed. The <strong>"updated"</strong> entry has all the signs which got updated. The <strong>"deferred"</strong> entry has all the signs which weren't updated as their chunk isn't loaded.
      */
     public HashMap<String, List<String>> updateSigns();
 
+    /**
+     * Updates only the given signs of this cell, the ones which aren't this cell's signs any more are skipped.
+     *
+     * @param signs to update
+     * @return collection of changes, the same as {@link #updateSigns()}
+     */
+    public HashMap<String, List<String>> updateSigns(Collection<SimpleLocation> signs);
+
     /**
      * Sets the location of where the prisoner will be teleported at when jailed here.
      * 
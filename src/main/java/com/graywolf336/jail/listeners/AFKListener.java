@@ -0,0 +1,81 @@
+package com.graywolf336.jail.listeners;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.beans.CachePrisoner;
+import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.events.PrisonerJailedEvent;
+
+/**
+ * Marks the prisoners as active when they move, chat or interact, so the {@link com.graywolf336.jail.AFKManager} knows how long they've been afk.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.1
+ */
+public class AFKListener implements Listener {
+    private JailMain pl;
+
+    public AFKListener(JailMain plugin) {
+        this.pl = plugin;
+    }
+
+    @EventHandler(ignoreCancelled=true, priority = EventPriority.MONITOR)
+    public void moving(PlayerMoveEvent event) {
+        //Only when they move to another block, looking around doesn't count
+        if(event.getFrom().getBlockX() == event.getTo().getBlockX() && event.getFrom().getBlockY() == event.getTo().getBlockY()
+                && event.getFrom().getBlockZ() == event.getTo().getBlockZ()) {
+            return;
+        }
+
+        this.markActive(event.getPlayer());
+    }
+
+    //Muted prisoners have their chat cancelled, but they're still not afk
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void chatting(AsyncPlayerChatEvent event) {
+        this.markActive(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void interacting(PlayerInteractEvent event) {
+        this.markActive(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void joining(PlayerJoinEvent event) {
+        if(pl.getJailManager().inCache(event.getPlayer().getUniqueId())) {
+            Prisoner p = pl.getJailManager().getCacheObject(event.getPlayer().getUniqueId()).getPrisoner();
+            p.markActive();
+            pl.getAFKManager().track(p);
+        }
+    }
+
+    //Their afk time doesn't count while they're offline
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void leaving(PlayerQuitEvent event) {
+        Prisoner p = pl.getJailManager().getPrisoner(event.getPlayer().getUniqueId());
+        if(p != null) p.stopAFKTracking();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void jailed(PrisonerJailedEvent event) {
+        event.getPrisoner().markActive();
+        pl.getAFKManager().track(event.getPrisoner());
+    }
+
+    private void markActive(Player player) {
+        //Only get it once, as they could be removed from the cache in between while chatting
+        CachePrisoner cp = pl.getJailManager().getCacheObject(player.getUniqueId());
+        if(cp != null) cp.getPrisoner().markActive();
+    }
+}
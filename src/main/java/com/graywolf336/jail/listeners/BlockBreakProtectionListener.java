@@ -0,0 +1,108 @@
+package com.graywolf336.jail.listeners;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Effect;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.Util;
+import com.graywolf336.jail.enums.Lang;
+import com.graywolf336.jail.enums.ProtectionType;
+import com.graywolf336.jail.enums.Settings;
+import com.graywolf336.jail.events.JailPluginReloadedEvent;
+
+/**
+ * Block break protection, only registered while it is enabled in the config.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class BlockBreakProtectionListener implements Listener {
+    private static final EnumSet<Material> LOGS = Util.getMaterialsContaining("_LOG");
+    private static final EnumSet<Material> LEAVES = Util.getMaterialsContaining("_LEAVES");
+    private static final EnumSet<Material> SAPLINGS = Util.getMaterialsContaining("_SAPLING");
+    private JailMain pl;
+    private EnumSet<Material> breakWhitelist;
+
+    public BlockBreakProtectionListener(JailMain plugin) {
+        this.pl = plugin;
+        this.breakWhitelist = Util.getMaterialsFromList(pl.getConfig().getStringList(Settings.BLOCKBREAKWHITELIST.getPath()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void reloadMaterials(JailPluginReloadedEvent event) {
+        this.breakWhitelist = Util.getMaterialsFromList(pl.getConfig().getStringList(Settings.BLOCKBREAKWHITELIST.getPath()));
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.LOW)
+    public void protectionBlockBreaking(BlockBreakEvent event) {
+        //Let's check if the player is jailed
+        if (pl.getJailManager().isPlayerJailed(event.getPlayer().getUniqueId())) {
+            //Get the breaking whitelist, check if the current item is in there
+            Block brokenBlock = event.getBlock();
+            Material brokenType = brokenBlock.getType();
+            boolean didBreakLog = LOGS.contains(brokenType);
+            boolean didBreakLeaf = LEAVES.contains(brokenType);
+            boolean didBreakSapling = SAPLINGS.contains(brokenType);
+            World world = brokenBlock.getWorld();
+            // TODO: Add option to enable in config
+            if(didBreakSapling){
+                event.setCancelled(true);
+            } else if(didBreakLeaf){
+                event.setDropItems(false);
+                event.setCancelled(false);
+            }else if (didBreakLog) {
+                Material blockUnderLog = event.getBlock().getRelative(BlockFace.DOWN).getType();
+
+                String msg = "";
+
+                try {
+                    long subtract = Util.getTime(pl.getConfig().getString(Settings.BLOCKBREAKLOGTIMEREDUCTION.getPath()));
+                    pl.getJailManager().getPrisoner(event.getPlayer().getUniqueId()).subtractTime(subtract);
+
+                    msg = Lang.CHOPLOGSUCCESS.get(String.valueOf(TimeUnit.SECONDS.convert(subtract, TimeUnit.MILLISECONDS)), Lang.CHOPLOGSUCCESS.get());
+
+                    if(blockUnderLog == Material.DIRT || blockUnderLog == Material.GRASS_BLOCK || blockUnderLog == Material.COARSE_DIRT){
+                        world.playEffect(brokenBlock.getLocation(), Effect.STEP_SOUND, Material.OAK_LOG);
+                        brokenBlock.setType(Material.OAK_SAPLING);
+                        didBreakLog = false;
+                    }
+
+                    event.getPlayer().sendMessage(msg);
+                } catch (Exception err) {
+                    pl.getLogger().severe("Block break penalty's time is in the wrong format, please fix.");
+                }
+
+                event.setDropItems(false);
+                event.setCancelled(!didBreakLog);
+
+            } else if (!breakWhitelist.contains(brokenType)) {
+                pl.getViolationManager().punish(event.getPlayer(), pl.getJailManager().getPrisoner(event.getPlayer().getUniqueId()), ProtectionType.BLOCKBREAKING);
+
+                //Stop the event from happening, as the block wasn't in the whitelist
+                event.setCancelled(true);
+            }
+        } else {
+            //The player is not jailed but they're trying to break blocks inside of the Jail
+            //If there is no jail let's skedaddle
+            if (pl.getJailManager().getJailFromLocation(event.getBlock().getLocation()) == null) return;
+
+            //If the player doesn't have permission to modify the jail,
+            //then we stop it here. We won't be doing any of the additions to
+            //a prisoner's sentence here as that's for the protections listener
+            if (!event.getPlayer().hasPermission("jail.modifyjail")) {
+                event.setCancelled(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.graywolf336.jail.listeners;
+
+import java.util.EnumSet;
+
+import org.bukkit.Material;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockPlaceEvent;
+
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.Util;
+import com.graywolf336.jail.enums.ProtectionType;
+import com.graywolf336.jail.enums.Settings;
+import com.graywolf336.jail.events.JailPluginReloadedEvent;
+
+/**
+ * Block place protection, only registered while it is enabled in the config.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class BlockPlaceProtectionListener implements Listener {
+    private JailMain pl;
+    private EnumSet<Material> placeWhitelist;
+
+    public BlockPlaceProtectionListener(JailMain plugin) {
+        this.pl = plugin;
+        this.placeWhitelist = Util.getMaterialsFromList(pl.getConfig().getStringList(Settings.BLOCKPLACEWHITELIST.getPath()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void reloadMaterials(JailPluginReloadedEvent event) {
+        this.placeWhitelist = Util.getMaterialsFromList(pl.getConfig().getStringList(Settings.BLOCKPLACEWHITELIST.getPath()));
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.LOW)
+    public void protectionBlockPlacing(BlockPlaceEvent event) {
+        //Let's check if the player is jailed
+        if (pl.getJailManager().isPlayerJailed(event.getPlayer().getUniqueId())) {
+            //Get the placing whitelist, check if the current item is in there
+            if (!placeWhitelist.contains(event.getBlock().getType())) {
+                pl.getViolationManager().punish(event.getPlayer(), pl.getJailManager().getPrisoner(event.getPlayer().getUniqueId()), ProtectionType.BLOCKPLACING);
+
+                //Stop the event from happening, as the block wasn't in the whitelist
+                event.setCancelled(true);
+            }
+        } else {
+            //The player is not jailed but they're trying to place blocks inside of the Jail
+            //If there is no jail let's skedaddle
+            if (pl.getJailManager().getJailFromLocation(event.getBlock().getLocation()) == null) return;
+
+            //If the player doesn't have permission to modify the jail,
+            //then we stop it here. We won't be doing any of the additions to
+            //a prisoner's sentence here as that's for the protections listener
+            if (!event.getPlayer().hasPermission("jail.modifyjail")) {
+                event.setCancelled(true);
+            }
+        }
+    }
+}
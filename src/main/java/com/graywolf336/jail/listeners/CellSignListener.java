@@ -5,16 +5,18 @@ import java.util.List;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
 
 import com.graywolf336.jail.JailMain;
 import com.graywolf336.jail.Util;
+import com.graywolf336.jail.beans.Cell;
 import com.graywolf336.jail.enums.Settings;
 import com.graywolf336.jail.events.JailPluginReloadedEvent;
 import com.graywolf336.jail.events.OfflinePrisonerJailedEvent;
 import com.graywolf336.jail.events.PrisonerJailedEvent;
 import com.graywolf336.jail.events.PrisonerReleasedEvent;
-import com.graywolf336.jail.events.PrisonerTimeChangeEvent;
 import com.graywolf336.jail.events.PrisonerTransferredEvent;
+import com.graywolf336.jail.events.PrisonersTimeChangeEvent;
 
 public class CellSignListener implements Listener {
     private String lineOne = "", lineTwo = "", lineThree = "", lineFour = "";
@@ -38,48 +40,51 @@ public class CellSignListener implements Listener {
     }
 
     @EventHandler(ignoreCancelled = true, priority = EventPriority.MONITOR)
-    public void changeTheCellSigns(final PrisonerTimeChangeEvent event) {
-        pl.getServer().getScheduler().scheduleSyncDelayedTask(pl, new Runnable() {
-            public void run() {
-                if (event.hasCell() && event.getCell().hasSigns()) {
-                    event.getCell().updateSigns();
-                }
+    public void changeTheCellSigns(PrisonersTimeChangeEvent event) {
+        for (Cell c : event.getCells()) {
+            if (c != null) {
+                pl.getCellSignUpdater().markDirty(c);
             }
-        });
+        }
     }
     
     @EventHandler(priority = EventPriority.MONITOR)
     public void changeSignsOnOfflineJailing(OfflinePrisonerJailedEvent event) {
-        if (event.hasCell() && event.getCell().hasSigns()) {
-            event.getCell().updateSigns();
+        if (event.hasCell()) {
+            pl.getCellSignUpdater().markDirty(event.getCell());
         }
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void changeCellSignsOnJail(PrisonerJailedEvent event) {
-        if (event.hasCell() && event.getCell().hasSigns()) {
-            event.getCell().updateSigns();
+        if (event.hasCell()) {
+            pl.getCellSignUpdater().markDirty(event.getCell());
         }
     }
 
     @EventHandler
     public void clearTheCellSigns(PrisonerReleasedEvent event) {
-        if (event.hasCell() && event.getCell().hasSigns()) {
-            event.getCell().updateSigns();
+        if (event.hasCell()) {
+            pl.getCellSignUpdater().markDirty(event.getCell());
         }
     }
 
     @EventHandler
     public void handleSignsOnTransfer(PrisonerTransferredEvent event) {
-        if (event.hasOriginalCell() && event.getOriginalCell().hasSigns()) {
-            event.getOriginalCell().updateSigns();
+        if (event.hasOriginalCell()) {
+            pl.getCellSignUpdater().markDirty(event.getOriginalCell());
         }
 
-        if (event.hasTargetCell() && event.getTargetCell().hasSigns()) {
-            event.getTargetCell().updateSigns();
+        if (event.hasTargetCell()) {
+            pl.getCellSignUpdater().markDirty(event.getTargetCell());
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void updateDeferredSigns(ChunkLoadEvent event) {
+        pl.getCellSignUpdater().chunkLoaded(event.getChunk());
+    }
+
     @EventHandler(priority = EventPriority.MONITOR)
     public void handleSignLineUpdates(JailPluginReloadedEvent event) throws Exception {
         List<String> lines = pl.getConfig().getStringList(Settings.CELLSIGNLINES.getPath());
@@ -0,0 +1,41 @@
+package com.graywolf336.jail.listeners;
+
+import java.util.Iterator;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+import com.graywolf336.jail.JailMain;
+
+/**
+ * Removes the prisoners from getting chat messages, only registered while
+ * the config has receiving messages set to false.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class ChatRecipientsListener implements Listener {
+    private JailMain pl;
+
+    public ChatRecipientsListener(JailMain plugin) {
+        this.pl = plugin;
+    }
+
+    @EventHandler(ignoreCancelled=true, priority = EventPriority.LOW)
+    public void removePrisonerRecipients(AsyncPlayerChatEvent event) {
+        if(pl.inDebug()) pl.getLogger().info("Debug - There are " + event.getRecipients().size() + " players getting the message before.");
+
+        //The cache holds every prisoner who is online, so we only
+        //have to look at the players actually getting the message
+        Iterator<Player> it = event.getRecipients().iterator();
+        while(it.hasNext())
+            if(pl.getJailManager().inCache(it.next().getUniqueId()))
+                it.remove();
+
+        if(pl.inDebug()) pl.getLogger().info("Debug - There are now " + event.getRecipients().size() + " players getting the message.");
+    }
+}
@@ -0,0 +1,46 @@
+package com.graywolf336.jail.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.enums.ProtectionType;
+import com.graywolf336.jail.enums.Settings;
+
+/**
+ * Command protection, only registered while it is enabled in the config.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class CommandProtectionListener implements Listener {
+    private JailMain pl;
+
+    public CommandProtectionListener(JailMain plugin) {
+        this.pl = plugin;
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.LOW)
+    public void commandProtection(PlayerCommandPreprocessEvent event) {
+        //Let's check if this player is jailed, if so then we continue
+        //otherwise we don't care about commands in here
+        if (pl.getJailManager().isPlayerJailed(event.getPlayer().getUniqueId())) {
+            boolean match = false;
+
+            for (String whited : pl.getConfig().getStringList(Settings.COMMANDWHITELIST.getPath()))
+                if (event.getMessage().toLowerCase().startsWith(whited.toLowerCase()))
+                    match = true;
+
+            //If no match found in the whitelist, then let's block this command.
+            if (!match) {
+                pl.getViolationManager().punish(event.getPlayer(), pl.getJailManager().getPrisoner(event.getPlayer().getUniqueId()), ProtectionType.COMMAND);
+
+                //Stop the command from happening, as it wasn't whitelisted
+                event.setCancelled(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.graywolf336.jail.listeners;
+
+import org.bukkit.Material;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.enums.ProtectionType;
+
+/**
+ * Crop trampling protection, only registered while it is enabled in the config.
+ *
+ * @author graywolf336
+ * @since 3.0.0
+ * @version 1.0.0
+ */
+public class CropTramplingProtectionListener implements Listener {
+    private JailMain pl;
+
+    public CropTramplingProtectionListener(JailMain plugin) {
+        this.pl = plugin;
+    }
+
+    @EventHandler(ignoreCancelled = true, priority = EventPriority.LOWEST)
+    public void cropTramplingProtection(PlayerInteractEvent event) {
+        //First thing is first, let's be sure the player we're dealing with is in jail
+        if (pl.getJailManager().isPlayerJailed(event.getPlayer().getUniqueId())) {
+            if (event.getAction() == Action.PHYSICAL && event.getClickedBlock().getType() == Material.FARMLAND) {
+                if (pl.getJailManager().getJailFromLocation(event.getClickedBlock().getLocation()) != null) {
+                    pl.getViolationManager().punish(event.getPlayer(), pl.getJailManager().getPrisoner(event.getPlayer().getUniqueId()), ProtectionType.CROPTRAMPLING);
+
+                    event.setCancelled(true);
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,6 @@
 package com.graywolf336.jail.listeners;
 
-import java.util.HashMap;
-
 import org.bukkit.ChatColor;
-import org.bukkit.Location;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
@@ -14,51 +11,46 @@ import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 
 import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.beans.CuffedPlayer;
 
 public class HandCuffListener implements Listener {
     private JailMain pl;
-    private HashMap<String, Location> tos;
 
     public HandCuffListener(JailMain plugin) {
         this.pl = plugin;
-        this.tos = new HashMap<String, Location>();
     }
 
     @EventHandler(ignoreCancelled=true)
     public void onPlayerMove(PlayerMoveEvent event) {
-        if(event.isCancelled()) return;
-
-        if (pl.getHandCuffManager().isHandCuffed(event.getPlayer().getUniqueId())) {
-            Location to = pl.getHandCuffManager().getLocation(event.getPlayer().getUniqueId());
-            to.setPitch(event.getTo().getPitch());
-            to.setYaw(event.getTo().getYaw());
-
-            tos.put(event.getPlayer().getName(), to);
-            event.getPlayer().teleport(to);
-
-            if(System.currentTimeMillis() >= pl.getHandCuffManager().getNextMessageTime(event.getPlayer().getUniqueId())) {
-                event.getPlayer().sendMessage(ChatColor.RED + "You are handcuffed and cant move!");
-                pl.getHandCuffManager().updateNextTime(event.getPlayer().getUniqueId());
-            }
-        }
+        holdInPlace(event);
     }
 
     @EventHandler(ignoreCancelled=true)
     public void onPlayerTeleport(PlayerTeleportEvent event) {
-        if(event.isCancelled()) return;
-
-        if (pl.getHandCuffManager().isHandCuffed(event.getPlayer().getUniqueId()) && event.getTo() != tos.get(event.getPlayer().getName())) {
-            Location to = pl.getHandCuffManager().getLocation(event.getPlayer().getUniqueId());
-            to.setPitch(event.getTo().getPitch());
-            to.setYaw(event.getTo().getYaw());
-
-            tos.put(event.getPlayer().getName(), to);
-            event.getPlayer().teleport(to);
+        holdInPlace(event);
+    }
 
-            if(System.currentTimeMillis() >= pl.getHandCuffManager().getNextMessageTime(event.getPlayer().getUniqueId())) {
-                event.getPlayer().sendMessage(ChatColor.RED + "You are handcuffed and cant move!");
-                pl.getHandCuffManager().updateNextTime(event.getPlayer().getUniqueId());
-            }
+    /**
+     * Keeps a handcuffed player where they were handcuffed at, while still letting them look around.
+     *
+     * <p>
+     *
+     * We change the event's to location instead of teleporting the player, as
+     * teleporting would throw another teleport event which we'd have to handle.
+     *
+     * @param event the move (or teleport) event to clamp
+     */
+    private void holdInPlace(PlayerMoveEvent event) {
+        CuffedPlayer cuffed = pl.getHandCuffManager().getCuffedPlayer(event.getPlayer().getUniqueId());
+        if(cuffed == null) return;
+
+        //If they only turned their head, then there is nothing for us to do
+        if(event.getTo() == null || cuffed.isHeldAt(event.getTo())) return;
+
+        event.setTo(cuffed.getLocation(event.getTo()));
+
+        if(cuffed.shouldMessage(System.currentTimeMillis())) {
+            event.getPlayer().sendMessage(ChatColor.RED + "You are handcuffed and cant move!");
         }
     }
 
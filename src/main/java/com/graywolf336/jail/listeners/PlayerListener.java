@@ -1,8 +1,6 @@
 package com.graywolf336.jail.listeners;
 
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
 
 import org.bukkit.ChatColor;
@@ -87,21 +85,16 @@ public class PlayerListener implements Listener {
                 event.getPlayer().sendMessage(Lang.MUTED.get());
             }
         }
+    }
 
-        //If the config has receive messages set to false, let's remove all the prisoners
-        //from getting the chat messages.
-        if(!pl.getConfig().getBoolean(Settings.RECIEVEMESSAGES.getPath())) {
-            if(pl.inDebug()) pl.getLogger().info("Debug - There are " + event.getRecipients().size() + " players getting the message before.");
-            Set<Player> rec = new HashSet<Player>(event.getRecipients());
-
-            for(Jail j : pl.getJailManager().getJails())
-                for(Prisoner p : j.getAllPrisoners().values())
-                    rec.remove(pl.getServer().getPlayer(p.getUUID()));
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void trackOnlinePlayers(PlayerJoinEvent event) {
+        pl.getJailManager().addOnlinePlayer(event.getPlayer().getName());
+    }
 
-            event.getRecipients().clear();
-            event.getRecipients().addAll(rec);
-            if(pl.inDebug()) pl.getLogger().info("Debug - There are now " + event.getRecipients().size() + " players getting the message.");
-        }
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void untrackOnlinePlayers(PlayerQuitEvent event) {
+        pl.getJailManager().removeOnlinePlayer(event.getPlayer().getName());
     }
 
     @EventHandler(priority = EventPriority.HIGHEST)
@@ -119,8 +112,12 @@ public class PlayerListener implements Listener {
 
             Prisoner p = j.getPrisoner(event.getPlayer().getUniqueId());
             //update their last known username when they login
+            pl.getJailManager().renamePrisonerName(p.getLastKnownName(), event.getPlayer().getName());
             p.setLastKnownName(event.getPlayer().getName());
 
+            //If their time was counting down while they were offline, work out what is left of it
+            pl.getJailTimer().stopOfflineCountdown(p, event.getPlayer());
+
             //Check if they're offline pending, as if this is true then they were jailed offline
             if(p.isOfflinePending()) {
                 if(p.getRemainingTime() == 0L) {
@@ -131,14 +128,10 @@ public class PlayerListener implements Listener {
 
                     //If the player is not jailed in a cell, teleport them to the jail's in
                     if(c == null) {
-                        p.setTeleporting(true);
-                        event.getPlayer().teleport(j.getTeleportIn());
-                        p.setTeleporting(false);
+                        pl.getTeleporter().teleport(event.getPlayer(), j.getTeleportIn(), p, null);
                     }else {
                         //If they are in a cell, teleport them into that cell
-                        p.setTeleporting(true);
-                        event.getPlayer().teleport(c.getTeleport());
-                        p.setTeleporting(false);
+                        pl.getTeleporter().teleport(event.getPlayer(), c.getTeleport(), p, null);
                     }
 
                     p.setToBeTransferred(false);
@@ -20,11 +20,15 @@ public class WorldListener implements Listener {
     public void worldLoaded(WorldLoadEvent event) {
         for(Jail j : pl.getJailManager().getJails())
             if(j.getWorldName().equalsIgnoreCase(event.getWorld().getName())) j.setEnabled(true);
+
+        pl.getChunkTicketManager().refresh();
     }
 
     @EventHandler(ignoreCancelled=true, priority = EventPriority.LOW)
     public void worldUnload(WorldUnloadEvent event) {
         for(Jail j : pl.getJailManager().getJails())
             if(j.getWorldName().equalsIgnoreCase(event.getWorld().getName())) j.setEnabled(false);
+
+        pl.getChunkTicketManager().refresh();
     }
 }
@@ -5,20 +5,41 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Random;
 import java.util.UUID;
 
 import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.UnsafeValues;
+import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.PluginDescriptionFile;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
@@ -27,8 +48,12 @@ import test.java.com.graywolf336.jail.util.TestInstanceCreator;
 import com.carrotsearch.junitbenchmarks.AbstractBenchmark;
 import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
 import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.PrisonerTemplate;
+import com.graywolf336.jail.Util;
 import com.graywolf336.jail.beans.CachePrisoner;
 import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.enums.Lang;
+import com.graywolf336.jail.listeners.HandCuffListener;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest({ JailMain.class, PluginDescriptionFile.class })
@@ -37,6 +62,16 @@ public class BenchmarkTest extends AbstractBenchmark {
     private static JailMain main;
     private static UUID use;
     private static Random r;
+    private static HandCuffListener cuffListener;
+    private static List<Player> cuffed;
+    private static String[] signLines = new String[] { "&9%player%", "%prettytime%", "with a reason", "%reason%" };
+    private static PrisonerTemplate[] signTemplates = Util.compileAll(signLines);
+    private static Prisoner signPrisoner = new Prisoner("e7965e93-df29-4440-9960-feeaef3fe772", "graywolf336", true, 3600000L, "Notch", "&ccode coverage");
+    private static CommandSender tabSender;
+    private static Material[] fullInventory = new Material[41];
+    private static Prisoner restorePrisoner;
+    private static Player restorePlayer;
+    private static int restoredCalls, restoredItems;
 
     @BeforeClass
     public static void setUp() throws Exception {
@@ -57,6 +92,67 @@ public class BenchmarkTest extends AbstractBenchmark {
         //This puts the cache object into the cache for the move event and others to use (move in this test)
         main.getJailManager().addCacheObject(new CachePrisoner(main.getJailManager().getJailPlayerIsIn(use), main.getJailManager().getPrisoner(use)));
         r = new Random();
+
+        //Handcuff a bunch of players so we can see how the handcuff listener holds up with them all moving
+        cuffListener = new HandCuffListener(main);
+        cuffed = new ArrayList<Player>();
+        for(int i = 0; i < 500; i++) {
+            Player p = mock(Player.class);
+            when(p.getUniqueId()).thenReturn(UUID.randomUUID());
+            when(p.getName()).thenReturn("cuffedPlayer" + i);
+
+            main.getHandCuffManager().addHandCuffs(p.getUniqueId(), new Location(main.getServer().getWorld("world"), i, 64, -i));
+            cuffed.add(p);
+        }
+
+        //A full inventory, 36 slots of contents with the armor, offhand and a few armor pieces mixed in
+        Material[] fillers = new Material[] { Material.STONE, Material.OAK_LOG, Material.DIAMOND_SWORD, Material.IRON_LEGGINGS, Material.BREAD, Material.TORCH };
+        for(int i = 0; i < 36; i++)
+            fullInventory[i] = fillers[i % fillers.length];
+        fullInventory[36] = Material.DIAMOND_BOOTS;
+        fullInventory[37] = Material.DIAMOND_LEGGINGS;
+        fullInventory[38] = Material.DIAMOND_CHESTPLATE;
+        fullInventory[39] = Material.DIAMOND_HELMET;
+        fullInventory[40] = Material.SHIELD;
+
+        //Restoring goes through the serialized items, which need the data version, the materials and the item meta
+        UnsafeValues unsafe = mock(UnsafeValues.class);
+        when(unsafe.getDataVersion()).thenReturn(2567);
+        when(unsafe.getMaterial(anyString(), anyInt())).thenAnswer(new Answer<Material>() {
+            public Material answer(InvocationOnMock invocation) throws Throwable {
+                return Material.getMaterial((String) invocation.getArguments()[0]);
+            }
+        });
+        when(creator.getServer().getUnsafe()).thenReturn(unsafe);
+
+        ItemFactory factory = mock(ItemFactory.class);
+        when(factory.equals(Matchers.<ItemMeta>any(), Matchers.<ItemMeta>any())).thenReturn(true);
+        when(creator.getServer().getItemFactory()).thenReturn(factory);
+
+        when(creator.getServer().createInventory(Matchers.<InventoryHolder>any(), anyInt())).thenAnswer(new Answer<Inventory>() {
+            public Inventory answer(InvocationOnMock invocation) throws Throwable {
+                return createInventory(Inventory.class, (Integer) invocation.getArguments()[1]);
+            }
+        });
+
+        ItemStack[] contents = new ItemStack[36];
+        for(int i = 0; i < contents.length; i++)
+            contents[i] = new ItemStack(fullInventory[i]);
+
+        ItemStack[] armor = new ItemStack[5];
+        for(int i = 0; i < armor.length; i++)
+            armor[i] = new ItemStack(fullInventory[36 + i]);
+
+        restorePrisoner = new Prisoner(UUID.randomUUID().toString(), "restorePlayer", 100000L, "Test restoring");
+        restorePrisoner.setInventory(Util.itemStackArrayToBase64(contents));
+        restorePrisoner.setArmor(Util.itemStackArrayToBase64(armor));
+
+        restorePlayer = mock(Player.class);
+        when(restorePlayer.getName()).thenReturn("restorePlayer");
+        when(restorePlayer.getInventory()).thenReturn(createInventory(PlayerInventory.class, 41));
+
+        tabSender = mock(CommandSender.class);
+        when(tabSender.hasPermission(anyString())).thenReturn(true);
     }
 
     @AfterClass
@@ -87,4 +183,164 @@ public class BenchmarkTest extends AbstractBenchmark {
 
         main.getPlayerMoveListener().moveProtection(e);
     }
+
+    @BenchmarkOptions(benchmarkRounds = 1000, warmupRounds = 0)
+    @Test
+    public void testHandCuffedPlayersMovingEveryTick() {
+        //Each round is one tick where every handcuffed player tries to move
+        for(Player p : cuffed) {
+            Location from = main.getHandCuffManager().getLocation(p.getUniqueId());
+            Location to = new Location(from.getWorld(), from.getX() + r.nextDouble(), from.getY(), from.getZ() + r.nextDouble(), r.nextFloat() * 360, 0);
+            PlayerMoveEvent e = new PlayerMoveEvent(p, from, to);
+
+            cuffListener.onPlayerMove(e);
+            assertTrue("The handcuffed player was able to move.", main.getHandCuffManager().getCuffedPlayer(p.getUniqueId()).isHeldAt(e.getTo()));
+        }
+    }
+
+    @BenchmarkOptions(benchmarkRounds = 100000, warmupRounds = 1000)
+    @Test
+    public void testSignLinesReplacingVariables() {
+        String[] lines = new String[signLines.length];
+        for(int i = 0; i < signLines.length; i++)
+            lines[i] = replaceAllVariablesByReplacing(signPrisoner, signLines[i]);
+
+        assertEquals("§ccode coverage", lines[3]);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = 100000, warmupRounds = 1000)
+    @Test
+    public void testSignLinesCompiledTemplates() {
+        String[] lines = Util.renderAll(signPrisoner, signTemplates);
+
+        assertEquals("§ccode coverage", lines[3]);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = 100000, warmupRounds = 1000)
+    @Test
+    public void testJailRootTabCompletion() {
+        List<String> all = main.onTabComplete(tabSender, null, "jail", new String[] { "" });
+        List<String> some = main.onTabComplete(tabSender, null, "jail", new String[] { "de" });
+
+        assertEquals("check", all.get(0));
+        assertEquals(3, some.size());
+    }
+
+    @BenchmarkOptions(benchmarkRounds = 1000, warmupRounds = 100)
+    @Test
+    public void testRestoringInventoryByName() throws Exception {
+        restoredCalls = 0;
+        restoredItems = 0;
+        restoreInventoryByName(restorePlayer, restorePrisoner);
+
+        //Everything but the four pieces of armor, one at a time
+        assertEquals(37, restoredCalls);
+        assertEquals(37, restoredItems);
+    }
+
+    @BenchmarkOptions(benchmarkRounds = 1000, warmupRounds = 100)
+    @Test
+    public void testRestoringInventoryBySlotMap() {
+        restoredCalls = 0;
+        restoredItems = 0;
+        Util.restoreInventory(restorePlayer, restorePrisoner);
+
+        //Everything but the four pieces of armor, all at once
+        assertEquals(1, restoredCalls);
+        assertEquals(37, restoredItems);
+    }
+
+    /** The way inventories used to be restored, kept here to compare the slot map and giving the items all at once against. */
+    private static void restoreInventoryByName(Player player, Prisoner prisoner) throws IOException {
+        Inventory content = Util.fromBase64(prisoner.getInventory());
+        ItemStack[] armor = Util.itemStackArrayFromBase64(prisoner.getArmor());
+
+        for(ItemStack item : armor) {
+            if(item == null)
+                continue;
+            else if(item.getType().toString().toLowerCase().contains("helmet"))
+                player.getInventory().setHelmet(item);
+            else if(item.getType().toString().toLowerCase().contains("chestplate"))
+                player.getInventory().setChestplate(item);
+            else if(item.getType().toString().toLowerCase().contains("leg"))
+                player.getInventory().setLeggings(item);
+            else if(item.getType().toString().toLowerCase().contains("boots"))
+                player.getInventory().setBoots(item);
+            else if (player.getInventory().firstEmpty() == -1)
+                player.getWorld().dropItem(player.getLocation(), item);
+            else
+                player.getInventory().addItem(item);
+        }
+
+        for(ItemStack item : content.getContents()) {
+            if(item == null) continue;
+            else if(player.getInventory().firstEmpty() == -1)
+                player.getWorld().dropItem(player.getLocation(), item);
+            else
+                player.getInventory().addItem(item);
+        }
+    }
+
+    /**
+     * Creates an inventory which holds on to its items and counts the items added to it, without
+     * a mock recording every call as that would get in the way of timing the restoring.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Inventory> T createInventory(Class<T> type, final int size) {
+        final ItemStack[] contents = new ItemStack[size];
+
+        return (T) Proxy.newProxyInstance(BenchmarkTest.class.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch(method.getName()) {
+                    case "getSize":
+                        return size;
+                    case "getContents":
+                        return contents;
+                    case "getItem":
+                        return args[0] instanceof Integer ? contents[(Integer) args[0]] : null;
+                    case "setItem":
+                        if(args[0] instanceof Integer) contents[(Integer) args[0]] = (ItemStack) args[1];
+                        return null;
+                    case "setHelmet":
+                    case "setChestplate":
+                    case "setLeggings":
+                    case "setBoots":
+                        return null;
+                    case "firstEmpty":
+                        return 0;
+                    case "addItem":
+                        restoredCalls++;
+                        restoredItems += ((ItemStack[]) args[0]).length;
+                        return new HashMap<Integer, ItemStack>();
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return type.getSimpleName();
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        });
+    }
+
+    /** The way variables used to be replaced, kept here to compare the compiled templates against. */
+    private static String replaceAllVariablesByReplacing(Prisoner p, String msg) {
+        msg = msg.replace("%player%", p.getLastKnownName())
+                .replace("%uuid%", p.getUUID().toString())
+                .replace("%reason%", p.getReason())
+                .replace("%jailer%", p.getJailer())
+                .replace("%afktime%", Util.getDurationBreakdown(p.getAFKTime()));
+
+        if(p.getRemainingTime() >= 0) {
+            msg = msg.replace("%timeinminutes%", String.valueOf(p.getRemainingTimeInMinutes()));
+            msg = msg.replace("%prettytime%", Util.getDurationBreakdown(p.getRemainingTime()));
+        }else {
+            msg = msg.replace("%timeinminutes%", String.valueOf(-1));
+            msg = msg.replace("%prettytime%", Lang.JAILEDFOREVERSIGN.get());
+        }
+
+        return Util.getColorfulMessage(msg);
+    }
 }
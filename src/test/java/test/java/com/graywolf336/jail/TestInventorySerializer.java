@@ -0,0 +1,169 @@
+package test.java.com.graywolf336.jail;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.UnsafeValues;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import test.java.com.graywolf336.jail.util.TestInstanceCreator;
+
+import com.graywolf336.jail.InventorySerializer;
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.Util;
+import com.graywolf336.jail.beans.Prisoner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ JailMain.class, PluginDescriptionFile.class })
+public class TestInventorySerializer {
+    private static TestInstanceCreator creator;
+    private static JailMain main;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        creator = new TestInstanceCreator();
+        assertNotNull("The instance creator is null.", creator);
+        assertTrue(creator.setup());
+        main = creator.getMain();
+        assertNotNull("The JailMain class is null.", main);
+
+        //Serializing the items needs the data version and the materials by their name
+        UnsafeValues unsafe = mock(UnsafeValues.class);
+        when(unsafe.getDataVersion()).thenReturn(2567);
+        when(unsafe.getMaterial(anyString(), anyInt())).thenAnswer(new Answer<Material>() {
+            public Material answer(InvocationOnMock invocation) throws Throwable {
+                return Material.getMaterial((String) invocation.getArguments()[0]);
+            }
+        });
+        when(creator.getServer().getUnsafe()).thenReturn(unsafe);
+
+        //None of the items have any meta
+        ItemFactory factory = mock(ItemFactory.class);
+        when(factory.equals(Matchers.<ItemMeta>any(), Matchers.<ItemMeta>any())).thenReturn(true);
+        when(creator.getServer().getItemFactory()).thenReturn(factory);
+
+        when(creator.getServer().createInventory(Matchers.<InventoryHolder>any(), anyInt())).thenAnswer(new Answer<Inventory>() {
+            public Inventory answer(InvocationOnMock invocation) throws Throwable {
+                return createInventory((Integer) invocation.getArguments()[1]);
+            }
+        });
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        creator.tearDown();
+        main = null;
+    }
+
+    @Test
+    public void testSnapshotIsACopy() {
+        Inventory inventory = createInventory(36);
+        inventory.setItem(0, new ItemStack(Material.DIAMOND, 5));
+
+        ItemStack[] items = InventorySerializer.snapshot(inventory);
+        inventory.setItem(0, null);
+
+        assertEquals(36, items.length);
+        assertEquals(Material.DIAMOND, items[0].getType());
+        assertEquals(5, items[0].getAmount());
+        assertNull(items[1]);
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() {
+        Inventory inventory = createInventory(36);
+        inventory.setItem(0, new ItemStack(Material.DIAMOND, 5));
+        inventory.setItem(9, new ItemStack(Material.STONE, 64));
+        inventory.setItem(35, new ItemStack(Material.TORCH, 16));
+
+        Prisoner p = new Prisoner("e7965e93-df29-4440-9960-feeaef3fe772", "graywolf336", 60000L, "testSnapshotRoundTrip");
+        main.getInventorySerializer().serialize(p, InventorySerializer.snapshot(inventory), null);
+
+        //Shutting it down waits on the worker, so the inventory has been handed over once this returns
+        main.getInventorySerializer().shutdown();
+        assertFalse(main.getInventorySerializer().isPending(p));
+        assertFalse(p.getInventory().isEmpty());
+
+        final List<ItemStack> given = new ArrayList<ItemStack>();
+        PlayerInventory playerInventory = mock(PlayerInventory.class);
+        when(playerInventory.addItem(Matchers.<ItemStack>anyVararg())).thenAnswer(new Answer<HashMap<Integer, ItemStack>>() {
+            public HashMap<Integer, ItemStack> answer(InvocationOnMock invocation) throws Throwable {
+                for(Object arg : invocation.getArguments()) {
+                    if(arg instanceof ItemStack[]) {
+                        for(ItemStack item : (ItemStack[]) arg)
+                            given.add(item);
+                    }else if(arg instanceof ItemStack) {
+                        given.add((ItemStack) arg);
+                    }
+                }
+
+                return new HashMap<Integer, ItemStack>();
+            }
+        });
+
+        Player player = mock(Player.class);
+        when(player.getName()).thenReturn("graywolf336");
+        when(player.getInventory()).thenReturn(playerInventory);
+
+        Util.restoreInventory(player, p);
+
+        assertEquals(3, given.size());
+        assertEquals(Material.DIAMOND, given.get(0).getType());
+        assertEquals(5, given.get(0).getAmount());
+        assertEquals(Material.STONE, given.get(1).getType());
+        assertEquals(64, given.get(1).getAmount());
+        assertEquals(Material.TORCH, given.get(2).getType());
+        assertEquals(16, given.get(2).getAmount());
+    }
+
+    /** Creates an inventory which holds on to its items, as the mock server doesn't have any. */
+    private static Inventory createInventory(int size) {
+        final ItemStack[] contents = new ItemStack[size];
+        Inventory inventory = mock(Inventory.class);
+
+        when(inventory.getSize()).thenReturn(size);
+        when(inventory.getContents()).thenReturn(contents);
+        when(inventory.getItem(anyInt())).thenAnswer(new Answer<ItemStack>() {
+            public ItemStack answer(InvocationOnMock invocation) throws Throwable {
+                return contents[(Integer) invocation.getArguments()[0]];
+            }
+        });
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                contents[(Integer) invocation.getArguments()[0]] = (ItemStack) invocation.getArguments()[1];
+                return null;
+            }
+        }).when(inventory).setItem(anyInt(), Matchers.<ItemStack>any());
+
+        return inventory;
+    }
+}
@@ -44,8 +44,11 @@ public class TestJailDefaultConfig {
     @Test
     public void testSystemDefaultConfig() {
         assertEquals("The config version is not 3.", 3, main.getConfig().getInt(Settings.CONFIGVERSION.getPath()));
+        assertEquals("Default batch budget is not 5000.", 5000, main.getConfig().getInt(Settings.BATCHBUDGET.getPath()));
+        assertFalse("Default timing of the commands is true.", main.getConfig().getBoolean(Settings.COMMANDTIMING.getPath()));
         assertTrue("Default debugging is off.", main.getConfig().getBoolean(Settings.DEBUG.getPath()));
         assertEquals("Default language is not 'en'.", "en", main.getConfig().getString(Settings.LANGUAGE.getPath()));
+        assertTrue("Default time change event for each prisoner is false.", main.getConfig().getBoolean(Settings.TIMECHANGEEVENTPERPRISONER.getPath()));
         assertEquals("Default updating channel is not bukkit.", "bukkit", main.getConfig().getString(Settings.UPDATECHANNEL.getPath()));
         assertTrue("Default updating notifications is false.", main.getConfig().getBoolean(Settings.UPDATENOTIFICATIONS.getPath()));
         assertEquals("Default updating time checking is not 1h.", "1h", main.getConfig().getString(Settings.UPDATETIME.getPath()));
@@ -93,6 +96,7 @@ public class TestJailDefaultConfig {
         assertTrue("Default command whitelist doesn't contain /jail status.", commandwhite.contains("/jail status"));
         assertTrue("Default command whitelist doesn't contain /jail pay.", commandwhite.contains("/jail pay"));
 
+        assertEquals("Default setting for the cell sign update budget is not 2000.", 2000, main.getConfig().getInt(Settings.CELLSIGNUPDATEBUDGET.getPath()));
         assertFalse("Default setting for counting down time while prisoner is offline is true.", main.getConfig().getBoolean(Settings.COUNTDOWNTIMEOFFLINE.getPath()));
         assertEquals("Default setting for crop trampling penalty is not 5m.", "5m", main.getConfig().getString(Settings.CROPTRAMPLINGPENALTY.getPath()));
         assertTrue("Default setting for crop trampling proection is false.", main.getConfig().getBoolean(Settings.CROPTRAMPLINGPROTECTION.getPath()));
@@ -104,6 +108,7 @@ public class TestJailDefaultConfig {
         assertEquals("Default setting move penalty is not 10 minutes.", "10m", main.getConfig().getString(Settings.MOVEPENALTY.getPath()));
         assertTrue("Default setting for move protection is false.", main.getConfig().getBoolean(Settings.MOVEPROTECTION.getPath()));
         assertTrue("Default setting for opening a chest is false.", main.getConfig().getBoolean(Settings.PRISONEROPENCHEST.getPath()));
+        assertEquals("Default setting for the protection penalty window is not 5s.", "5s", main.getConfig().getString(Settings.PROTECTIONPENALTYWINDOW.getPath()));
 
         // interaction blocks protection section
         List<String> interactionBlocks = main.getConfig().getStringList(Settings.PREVENTINTERACTIONBLOCKS.getPath());
@@ -117,6 +122,7 @@ public class TestJailDefaultConfig {
 
         assertTrue("Default setting for recieving messages is false.", main.getConfig().getBoolean(Settings.RECIEVEMESSAGES.getPath()));
         assertTrue("Default setting for scoreboard being enabled is false.", main.getConfig().getBoolean(Settings.SCOREBOARDENABLED.getPath()));
+        assertTrue("Default scoreboard lines aren't empty.", main.getConfig().getStringList(Settings.SCOREBOARDLINES.getPath()).isEmpty());
         assertEquals("Default setting for the scoreboard title is not Jail Info.", "Jail Info", main.getConfig().getString(Settings.SCOREBOARDTITLE.getPath()));
         assertEquals("Default setting for the scoreboard time language is not &aTime:", "&aTime:", main.getConfig().getString(Settings.SCOREBOARDTIME.getPath()));
     }
@@ -152,6 +158,8 @@ public class TestJailDefaultConfig {
 
     @Test
     public void testJailsDefaultConfig() {
+        assertFalse("Default setting for keeping the jails' chunks loaded is true.", main.getConfig().getBoolean(Settings.CHUNKTICKETSENABLED.getPath()));
+        assertEquals("Default setting for the most chunks kept loaded is not 64.", 64, main.getConfig().getInt(Settings.CHUNKTICKETSMAXCHUNKS.getPath()));
         assertTrue("Default setting for protecting jails from endermen is false.", main.getConfig().getBoolean(Settings.ENDERMENPROTECTION.getPath()));
         assertTrue("Default setting for protecting jails from explosions is false.", main.getConfig().getBoolean(Settings.EXPLOSIONPROTECTION.getPath()));
     }
@@ -67,6 +67,7 @@ public class TestJailLanguage {
     @Test
     public void testGeneralLanguage() {
         assertEquals("all the jails", Lang.ALLJAILS.get());
+        assertEquals(colorize("&7Processed &925 &7of &9100 &7prisoners..."), Lang.BATCHPROGRESS.get(new String[] { "25", "100" }));
         assertEquals(colorize("&cThe removal of cell cell_01 from jail cloud was unsuccessful because there is a prisoner in there still. Release or transfer before trying to remove the cell again."), Lang.CELLREMOVALUNSUCCESSFUL.get(new String[] { "cell_01", "cloud" }));
         assertEquals(colorize("&9Cell cell_01 has been successfully removed from the jail cloud."), Lang.CELLREMOVED.get(new String[] { "cell_01", "cloud" }));
         assertEquals(colorize("&9jailing"), Lang.JAILING.get());
@@ -75,6 +76,7 @@ public class TestJailLanguage {
         assertEquals(colorize("&3Jail stick usage: &cdisabled"), Lang.JAILSTICKDISABLED.get());
         assertEquals(colorize("&3Jail stick usage: &aenabled"), Lang.JAILSTICKENABLED.get());
         assertEquals(colorize("&cThe usage of Jail Sticks has been disabled by the Administrator."), Lang.JAILSTICKUSAGEDISABLED.get());
+        assertEquals(colorize("&7Page &92 &7of &915"), Lang.LISTPAGE.get(new String[] { "2", "15" }));
         assertEquals(colorize("&cNo cell found by the name of cell_01 in the jail cloud."), Lang.NOCELL.get(new String[] { "cell_01", "cloud" }));
         assertEquals(colorize("&cNo cells found in the jail cloud."), Lang.NOCELLS.get("cloud"));
         assertEquals(colorize("&cNo jail found by the name of cloud."), Lang.NOJAIL.get("cloud"));
@@ -86,6 +88,8 @@ public class TestJailLanguage {
         assertEquals(colorize("&9Jail configuration successfully reloaded."), Lang.PLUGINRELOADED.get());
         assertEquals(colorize("&cAll the prisoners from cloud have been cleared."), Lang.PRISONERSCLEARED.get("cloud"));
         assertEquals(colorize("&7[MM/dd/yyyy HH:mm:ss]: &9graywolf336 &fjailed by &9console &ffor &960 &fminutes with a reason of &9doing terrible coding&f. [" + id.toString() + "]"), Lang.RECORDENTRY.get(new String[] { "MM/dd/yyyy HH:mm:ss", "graywolf336", "console", "60", "doing terrible coding", id.toString() }));
+        assertEquals(colorize("&cYour last record lookup has not finished yet, please wait for it."), Lang.RECORDLOOKUPPENDING.get());
+        assertEquals(colorize("&cThere are too many record lookups going right now, please try again in a moment."), Lang.RECORDLOOKUPSBUSY.get());
         assertEquals(colorize("&9transferring"), Lang.TRANSFERRING.get());
         assertEquals(colorize("&cNo commands registered by the name of invalidcommand."), Lang.UNKNOWNCOMMAND.get("invalidcommand"));
     }
@@ -163,6 +167,13 @@ public class TestJailLanguage {
         assertEquals(colorize("&aYour handcuffs have been removed."), Lang.UNHANDCUFFED.get());
     }
 
+    @Test
+    public void testVariablesWithSpecialCharacters() {
+        assertEquals(colorize("&9gray$1wolf\\336 &ccan not be handcuffed."), Lang.CANTBEHANDCUFFED.get("gray$1wolf\\336"));
+        assertEquals(colorize("&9&cgraywolf336 &ccan not be handcuffed."), Lang.CANTBEHANDCUFFED.get("&cgraywolf336"));
+        assertEquals(colorize("&9%0% &ccan not be handcuffed."), Lang.CANTBEHANDCUFFED.get());
+    }
+
     @Test
     public void testReplacingAllVariables() {
         String template = "%player% (%uuid%) was jailed for %timeinminutes% minutes by %jailer% for \"%reason%\" and has been afk for %afktime%. Pretty time: %prettytime%";
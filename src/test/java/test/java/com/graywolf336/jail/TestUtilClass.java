@@ -6,6 +6,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -15,6 +16,8 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.graywolf336.jail.CommandTemplate;
+import com.graywolf336.jail.CompletionIndex;
 import com.graywolf336.jail.Util;
 
 public class TestUtilClass {
@@ -93,6 +96,35 @@ public class TestUtilClass {
         assertFalse(Util.isStringInsideList(Material.BEDROCK.toString(), list));
     }
 
+    @Test
+    public void testMaterialsFromList() {
+        EnumSet<Material> materials = Util.getMaterialsFromList(list);
+        assertEquals(3, materials.size());
+        assertTrue(materials.contains(Material.WHEAT_SEEDS));
+        assertTrue(materials.contains(Material.COAL_ORE));
+        assertTrue(materials.contains(Material.TORCH));
+        assertFalse(materials.contains(Material.DIRT));
+    }
+
+    @Test
+    public void testInvalidMaterialsAreSkipped() {
+        List<String> invalid = new ArrayList<String>();
+        invalid.add("not_a_material");
+        invalid.add("oak_door");
+
+        EnumSet<Material> materials = Util.getMaterialsFromList(invalid);
+        assertEquals(1, materials.size());
+        assertTrue(materials.contains(Material.OAK_DOOR));
+    }
+
+    @Test
+    public void testMaterialsContaining() {
+        EnumSet<Material> logs = Util.getMaterialsContaining("_LOG");
+        assertTrue(logs.contains(Material.OAK_LOG));
+        assertTrue(logs.contains(Material.STRIPPED_SPRUCE_LOG));
+        assertFalse(logs.contains(Material.OAK_LEAVES));
+    }
+
     @Test
     public void testCorrectStringFromArray() {
         assertEquals("WHEAT_SEEDS,coal_ore,torch", Util.getStringFromArray(",", array));
@@ -157,6 +189,51 @@ public class TestUtilClass {
         assertEquals("1d1h1m1s", Util.getDurationBreakdown(90061000));
     }
 
+    @Test
+    public void testDurationBreakdownAppending() {
+        StringBuilder sb = new StringBuilder("Time: ");
+        assertEquals("Time: 1d1h1m1s", Util.appendDurationBreakdown(sb, 90061999).toString());
+        assertEquals("59s", Util.getDurationBreakdown(59999));
+    }
+
+    @Test
+    public void testCachedTimeIsTheSame() throws Exception {
+        assertEquals(Util.getTime("15m"), Util.getTime("15m"));
+        assertEquals(900000L, Util.getTime("15m"), 0);
+    }
+
+    @Test
+    public void testCompletionIndexPrefixes() {
+        CompletionIndex index = new CompletionIndex();
+        index.add("graywolf336");
+        index.add("Notch");
+        index.add("gray");
+        index.add("jeb_");
+        index.remove("jeb_");
+
+        assertEquals(3, index.size());
+        assertEquals("[gray, graywolf336, Notch]", index.getByPrefix("").toString());
+        assertEquals("[gray, graywolf336]", index.getByPrefix("GrA").toString());
+        assertEquals("[graywolf336]", index.getByPrefix("gray", new CompletionIndex.Filter() {
+            public boolean accept(String name) {
+                return name.length() > 4;
+            }
+        }).toString());
+
+        for(int i = 0; i < 100; i++)
+            index.add("player" + i);
+
+        assertEquals(CompletionIndex.MAX_RESULTS, index.getByPrefix("player").size());
+    }
+
+    @Test
+    public void testCommandTemplates() {
+        CommandTemplate t = CommandTemplate.compile("say %p% (%uuid%) as %player% for %reason% at 100%");
+        assertEquals("say graywolf336 (abc-123) as graywolf336 for $5 fines at 100%", t.render("graywolf336", "abc-123", "$5 fines"));
+        assertEquals("say nothing", CommandTemplate.compile("say nothing").render("graywolf336", "abc-123", "reason"));
+        assertEquals("%unknown% graywolf336", CommandTemplate.compile("%unknown% %player%").render("graywolf336", "abc-123", "reason"));
+    }
+
     @Test(expected = Exception.class)
     public void testInvalidDateFormat() throws Exception {
         Util.getTime("abcdefg");
@@ -173,4 +250,13 @@ public class TestUtilClass {
         Util.updateSignLinesCache(lines);
         assertArrayEquals(lines, Util.getSignLines());
     }
+
+    @Test
+    public void testChunkKeys() {
+        assertEquals(0L, Util.getChunkKey(0, 0));
+        assertEquals(1L, Util.getChunkKey(1, 0));
+        assertEquals(1L << 32, Util.getChunkKey(0, 1));
+        assertFalse(Util.getChunkKey(-1, 0) == Util.getChunkKey(0, -1));
+        assertFalse(Util.getChunkKey(-1, 1) == Util.getChunkKey(1, -1));
+    }
 }
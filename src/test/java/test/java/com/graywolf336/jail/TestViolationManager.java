@@ -0,0 +1,111 @@
+package test.java.com.graywolf336.jail;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import test.java.com.graywolf336.jail.util.TestInstanceCreator;
+
+import com.graywolf336.jail.JailMain;
+import com.graywolf336.jail.ViolationManager;
+import com.graywolf336.jail.beans.Prisoner;
+import com.graywolf336.jail.beans.Violations;
+import com.graywolf336.jail.enums.ProtectionType;
+import com.graywolf336.jail.enums.Settings;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({ JailMain.class, PluginDescriptionFile.class })
+public class TestViolationManager {
+    private static TestInstanceCreator creator;
+    private static JailMain main;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        creator = new TestInstanceCreator();
+        assertNotNull("The instance creator is null.", creator);
+        assertTrue(creator.setup());
+        main = creator.getMain();
+        assertNotNull("The JailMain class is null.", main);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        creator.tearDown();
+        main = null;
+    }
+
+    @Test
+    public void testViolationsWindow() {
+        Violations v = new Violations();
+        assertTrue(v.isIdle(1000L));
+        assertFalse(v.inWindow(ProtectionType.MOVING, 1000L));
+
+        v.startWindow(ProtectionType.MOVING, 6000L);
+        assertTrue(v.inWindow(ProtectionType.MOVING, 1000L));
+        assertFalse(v.inWindow(ProtectionType.BLOCKBREAKING, 1000L));
+        assertFalse(v.inWindow(ProtectionType.MOVING, 6000L));
+        assertFalse(v.isIdle(5999L));
+        assertTrue(v.isIdle(6000L));
+    }
+
+    @Test
+    public void testViolationsPending() {
+        Violations v = new Violations();
+        assertEquals(1, v.addPending(ProtectionType.COMMAND));
+        assertEquals(2, v.addPending(ProtectionType.COMMAND));
+        assertEquals(1, v.addPending(ProtectionType.MOVING));
+
+        assertEquals(2, v.takePending(ProtectionType.COMMAND));
+        assertEquals(0, v.takePending(ProtectionType.COMMAND));
+        assertEquals(1, v.takePending(ProtectionType.MOVING));
+    }
+
+    @Test
+    public void testPunishWithoutWindow() {
+        ViolationManager vm = main.getViolationManager();
+        main.getConfig().set(Settings.PROTECTIONPENALTYWINDOW.getPath(), "0s");
+        vm.loadPenalties();
+
+        long moving = vm.getViolationCount(ProtectionType.MOVING);
+        long total = vm.getTotalViolationCount();
+        long throttled = vm.getThrottledCount();
+        Prisoner p = new Prisoner(creator.getPlayer().getUniqueId().toString(), "graywolf336", TimeUnit.MILLISECONDS.convert(5L, TimeUnit.MINUTES), "testPunishWithoutWindow");
+
+        for(int i = 0; i < 3; i++)
+            vm.punish(creator.getPlayer(), p, ProtectionType.MOVING);
+
+        //Every violation is punished on its own, the default move penalty is 10 minutes
+        assertEquals(TimeUnit.MILLISECONDS.convert(35L, TimeUnit.MINUTES), p.getRemainingTime());
+        assertEquals(moving + 3, vm.getViolationCount(ProtectionType.MOVING));
+        assertEquals(total + 3, vm.getTotalViolationCount());
+        assertEquals(throttled, vm.getThrottledCount());
+        assertEquals(0, vm.getTrackedCount());
+
+        main.getConfig().set(Settings.PROTECTIONPENALTYWINDOW.getPath(), "5s");
+        vm.loadPenalties();
+    }
+
+    @Test
+    public void testPunishWindowIsCleanedUp() {
+        ViolationManager vm = main.getViolationManager();
+        long command = vm.getViolationCount(ProtectionType.COMMAND);
+        Prisoner p = new Prisoner(creator.getPlayer().getUniqueId().toString(), "graywolf336", TimeUnit.MILLISECONDS.convert(5L, TimeUnit.MINUTES), "testPunishWindowIsCleanedUp");
+
+        //The first violation is punished right away, the mock scheduler ends the window
+        //right away as well and without anything pending the player isn't kept around
+        vm.punish(creator.getPlayer(), p, ProtectionType.COMMAND);
+        assertEquals(command + 1, vm.getViolationCount(ProtectionType.COMMAND));
+        assertEquals(0, vm.getTrackedCount());
+    }
+}